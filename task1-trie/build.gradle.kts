@@ -1,6 +1,7 @@
 plugins {
     java
     application
+    id("me.champeau.jmh") version "0.6.8"
 }
 
 group = "org.example"
@@ -24,6 +25,9 @@ java {
         test {
             java.setSrcDirs(listOf("src/test"))
         }
+        named("jmh") {
+            java.setSrcDirs(listOf("src/jmh"))
+        }
     }
 }
 
@@ -34,3 +38,9 @@ tasks.compileJava {
 tasks.test {
     useJUnitPlatform()
 }
+
+jmh {
+    jmhVersion.set("1.35")
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
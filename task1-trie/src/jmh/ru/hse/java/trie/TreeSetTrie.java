@@ -0,0 +1,84 @@
+package ru.hse.java.trie;
+
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * Baseline for the benchmarks: Trie over TreeSet with the semantics of StressTreeSetWrapper,
+ * but with the prefix count and the next string taken from views of the set.
+ */
+class TreeSetTrie implements Trie {
+
+    private final TreeSet<String> tree = new TreeSet<>();
+
+    @Override
+    public boolean add(String element) {
+        Alphabet.checkInput(element);
+        return tree.add(element);
+    }
+
+    @Override
+    public boolean contains(String element) {
+        return tree.contains(element);
+    }
+
+    @Override
+    public boolean remove(String element) {
+        return tree.remove(element);
+    }
+
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    /**
+     * Expected complexity: O(log(size) + result), since the size of a view is counted by iteration
+     */
+    @Override
+    public int howManyStartsWithPrefix(String prefix) {
+        return tree.subSet(prefix, prefix + Character.MAX_VALUE).size();
+    }
+
+    /**
+     * Expected complexity: O(size), since the size of a view is counted by iteration
+     */
+    @Override
+    public int rank(String element) {
+        return tree.headSet(element).size();
+    }
+
+    /**
+     * Expected complexity: O(index)
+     */
+    @Override
+    public String select(int index) {
+        if (index < 0 || index >= tree.size()) {
+            return null;
+        }
+        Iterator<String> iterator = tree.iterator();
+        for (int i = 0; i < index; i++) {
+            iterator.next();
+        }
+        return iterator.next();
+    }
+
+    /**
+     * Expected complexity: O(log(size) + k)
+     */
+    @Override
+    public String nextString(String element, int k) {
+        if (k == 0) {
+            return tree.contains(element) ? element : null;
+        }
+        Iterator<String> iterator = tree.tailSet(element, false).iterator();
+        String result = null;
+        for (int i = 0; i < k; i++) {
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            result = iterator.next();
+        }
+        return result;
+    }
+}
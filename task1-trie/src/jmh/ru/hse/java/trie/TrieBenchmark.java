@@ -0,0 +1,194 @@
+package ru.hse.java.trie;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares trie implementations and a TreeSet baseline on the hot operations
+ * across dictionary sizes and distributions of key lengths.
+ * Run with <tt>gradle jmh</tt>, results are written to build/results/jmh/results.json.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrieBenchmark {
+
+    private static final int STRING_LENGTH = 15;
+    private static final int MAX_NEXT_STRING_STEP = 1024;
+
+    /**
+     * Lengths of generated keys
+     */
+    enum KeyLength {
+        /**
+         * STRING_LENGTH lowercase letters, as in the stress tests
+         */
+        FIXED,
+        /**
+         * from 1 to 2 * STRING_LENGTH lowercase letters
+         */
+        UNIFORM,
+        /**
+         * from 1 to 5 letters of both cases, so the top of the trie is dense
+         */
+        SHORT
+    }
+
+    @Param({"TrieImpl", "ArrayTrie", "RadixTrie", "TreeSet"})
+    private String implementation;
+
+    @Param({"10000", "100000", "1000000"})
+    private int dictionarySize;
+
+    @Param({"FIXED", "UNIFORM", "SHORT"})
+    private KeyLength keyLength;
+
+    private String[] words;
+    private String[] prefixes;
+    private String[] missingWords;
+    private Trie trie;
+    private int position = 0;
+
+    static Supplier<Trie> factory(String implementation) {
+        switch (implementation) {
+            case "TrieImpl":
+                return TrieImpl::new;
+            case "ArrayTrie":
+                return ArrayTrie::new;
+            case "RadixTrie":
+                return RadixTrie::new;
+            case "TreeSet":
+                return TreeSetTrie::new;
+            default:
+                throw new IllegalArgumentException("Unknown trie implementation: " + implementation);
+        }
+    }
+
+    static String[] generateRandomStrings(int count, int length, long seed) {
+        Random random = new Random(seed);
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int j = 0; j < length; j++) {
+                stringBuilder.append((char) (random.nextInt(26) + 'a'));
+            }
+            result[i] = stringBuilder.toString();
+        }
+        return result;
+    }
+
+    static String[] generateRandomStrings(int count, KeyLength keyLength, long seed) {
+        if (keyLength == KeyLength.FIXED) {
+            return generateRandomStrings(count, STRING_LENGTH, seed);
+        }
+
+        Random random = new Random(seed);
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder stringBuilder = new StringBuilder();
+            if (keyLength == KeyLength.UNIFORM) {
+                for (int j = random.nextInt(2 * STRING_LENGTH) + 1; j > 0; j--) {
+                    stringBuilder.append((char) (random.nextInt(26) + 'a'));
+                }
+            } else {
+                for (int j = random.nextInt(5) + 1; j > 0; j--) {
+                    stringBuilder.append(Alphabet.letterAt(random.nextInt(Alphabet.SIZE)));
+                }
+            }
+            result[i] = stringBuilder.toString();
+        }
+        return result;
+    }
+
+    @Setup
+    public void setUp() {
+        words = generateRandomStrings(dictionarySize, keyLength, 42);
+        prefixes = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            prefixes[i] = words[i].substring(0, i % words[i].length());
+        }
+        trie = factory(implementation).get();
+        for (String word : words) {
+            trie.add(word);
+        }
+        missingWords = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            missingWords[i] = prefixes[i];
+            while (trie.contains(missingWords[i])) {
+                missingWords[i] += 'a';
+            }
+        }
+    }
+
+    private int nextPosition() {
+        position = position + 1 == dictionarySize ? 0 : position + 1;
+        return position;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public Trie add() {
+        Trie freshTrie = factory(implementation).get();
+        for (int i = 0; i < 1000; i++) {
+            freshTrie.add(words[i]);
+        }
+        return freshTrie;
+    }
+
+    @Benchmark
+    public boolean addExisting() {
+        return trie.add(words[nextPosition()]);
+    }
+
+    /**
+     * Removes a stored word and adds it back, so the dictionary does not change
+     */
+    @Benchmark
+    public boolean removeAndAdd() {
+        String word = words[nextPosition()];
+        return trie.remove(word) && trie.add(word);
+    }
+
+    @Benchmark
+    public boolean removeMissing() {
+        return trie.remove(missingWords[nextPosition()]);
+    }
+
+    /**
+     * Prefixes of stored words reuse existing nodes, so with <tt>-prof gc</tt>
+     * this shows garbage produced by the descent itself
+     */
+    @Benchmark
+    public boolean addAndRemovePrefix() {
+        String prefix = prefixes[nextPosition()];
+        return trie.add(prefix) && trie.remove(prefix);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return trie.contains(words[nextPosition()]);
+    }
+
+    @Benchmark
+    public int howManyStartsWithPrefix() {
+        return trie.howManyStartsWithPrefix(prefixes[nextPosition()]);
+    }
+
+    @Benchmark
+    public String nextString() {
+        int pos = nextPosition();
+        return trie.nextString(words[pos], pos % MAX_NEXT_STRING_STEP);
+    }
+
+    @Benchmark
+    public List<String> completions() {
+        return trie.completions(prefixes[nextPosition()], 10);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.hse.java.trie;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building a trie from sorted strings with TrieImpl.fromSorted against add() per string.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrieBulkLoadBenchmark {
+
+    private static final int STRING_LENGTH = 15;
+
+    @Param({"100000", "1000000"})
+    private int dictionarySize;
+
+    private List<String> sortedWords;
+
+    @Setup
+    public void setUp() {
+        String[] words = TrieBenchmark.generateRandomStrings(dictionarySize, STRING_LENGTH, 42);
+        Arrays.sort(words);
+        sortedWords = Arrays.asList(words);
+    }
+
+    @Benchmark
+    public Trie addSorted() {
+        TrieImpl trie = new TrieImpl();
+        for (String word : sortedWords) {
+            trie.add(word);
+        }
+        return trie;
+    }
+
+    @Benchmark
+    public Trie fromSorted() {
+        return TrieImpl.fromSorted(sortedWords);
+    }
+}
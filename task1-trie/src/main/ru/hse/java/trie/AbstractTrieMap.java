@@ -0,0 +1,120 @@
+package ru.hse.java.trie;
+
+import java.util.Arrays;
+
+/**
+ * Base of the tries which keep a value in the terminal node of every key.
+ * Updates descend once: the nodes on the path are remembered in a reused stack,
+ * so counts are fixed without new lookups when a key is added or removed.
+ * Subclasses keep the value in their nodes and differ in get, put and merge only.
+ *
+ * @param <N> type of the nodes of a trie
+ */
+abstract class AbstractTrieMap<N extends BitmapNode<N>> extends BitmapTrie<N> {
+
+    /**
+     * Nodes on the path of the last descend, path[i] is reached by i chars of the key
+     */
+    private N[] path;
+
+    /**
+     * @param root
+     * @param path initial stack of the descend, its length is not less than one
+     */
+    AbstractTrieMap(N root, N[] path) {
+        super(root);
+        this.path = path;
+    }
+
+    /**
+     * Resets the value of a node which stops being a word
+     */
+    abstract void clearValue(N node);
+
+    /**
+     * The descent which remembers all nodes in path
+     *
+     * @param key string consisting of English letters
+     * @param isCreating whether missing nodes are created
+     * @return node of key or null if it is absent and isCreating is false
+     */
+    final N descend(String key, boolean isCreating) {
+        if (key.length() >= path.length) {
+            path = Arrays.copyOf(path, Math.max(2 * path.length, key.length() + 1));
+        }
+        N currentNode = root;
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            int letter = Alphabet.indexOf(key.charAt(i));
+            N nextNode = letter < 0 ? null : currentNode.getNextNode(letter);
+            if (nextNode == null) {
+                if (!isCreating) {
+                    return null;
+                }
+                nextNode = currentNode.makeNextNode(letter);
+            }
+            currentNode = nextNode;
+            path[i + 1] = currentNode;
+        }
+        return currentNode;
+    }
+
+    /**
+     * Marks the node of key, which is the last descend, as a word
+     */
+    final void addWord(String key) {
+        path[key.length()].isEnd = true;
+        for (int i = 0; i <= key.length(); i++) {
+            path[i].countWordsInSubtree++;
+        }
+    }
+
+    /**
+     * Unmarks the node of key, which is the last descend, and prunes nodes without words
+     */
+    final void removeWord(String key) {
+        N finishNode = path[key.length()];
+        finishNode.isEnd = false;
+        clearValue(finishNode);
+        root.countWordsInSubtree--;
+        for (int i = 1; i <= key.length(); i++) {
+            if (--path[i].countWordsInSubtree == 0) {
+                path[i - 1].removeNextNode(Alphabet.indexOf(key.charAt(i - 1)));
+                break;
+            }
+        }
+    }
+
+    /**
+     * Drops the references to the nodes of the last descend, so removed nodes can be collected
+     */
+    final void releasePath(String key) {
+        Arrays.fill(path, 0, key.length() + 1, null);
+    }
+
+    /**
+     * Adds key with the initial value of a node
+     */
+    @Override
+    public boolean add(String element) {
+        Alphabet.checkInput(element);
+        N finishNode = descend(element, true);
+        boolean isAdded = !finishNode.isEnd;
+        if (isAdded) {
+            addWord(element);
+        }
+        releasePath(element);
+        return isAdded;
+    }
+
+    @Override
+    public boolean remove(String element) {
+        N finishNode = descend(element, false);
+        boolean isRemoved = finishNode != null && finishNode.isEnd;
+        if (isRemoved) {
+            removeWord(element);
+        }
+        releasePath(element);
+        return isRemoved;
+    }
+}
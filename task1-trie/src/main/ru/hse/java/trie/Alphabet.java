@@ -0,0 +1,64 @@
+package ru.hse.java.trie;
+
+/**
+ * English alphabet used by tries: 'A'..'Z' map to 0..25, 'a'..'z' map to 26..51.
+ * Letter indices follow the lexicographic order of chars.
+ */
+final class Alphabet {
+    static final int SIZE = 52;
+
+    private static final int LETTERS_IN_CASE = 26;
+
+    private Alphabet() {
+    }
+
+    /**
+     * @param symbol
+     * @return index of the letter or -1 if symbol is not an English letter
+     */
+    static int indexOf(char symbol) {
+        if (symbol >= 'A' && symbol <= 'Z') {
+            return symbol - 'A';
+        }
+        if (symbol >= 'a' && symbol <= 'z') {
+            return symbol - 'a' + LETTERS_IN_CASE;
+        }
+        return -1;
+    }
+
+    static char letterAt(int index) {
+        return (char) (index < LETTERS_IN_CASE ? 'A' + index : 'a' + index - LETTERS_IN_CASE);
+    }
+
+    /**
+     * @param symbol
+     * @return how many letters of the alphabet are less than symbol
+     */
+    static int lettersBefore(char symbol) {
+        if (symbol <= 'A') {
+            return 0;
+        }
+        if (symbol <= 'Z') {
+            return symbol - 'A';
+        }
+        if (symbol <= 'a') {
+            return LETTERS_IN_CASE;
+        }
+        if (symbol <= 'z') {
+            return symbol - 'a' + LETTERS_IN_CASE;
+        }
+        return SIZE;
+    }
+
+    /**
+     * Сheck that passed string consists of English letters
+     *
+     * @param element
+     */
+    static void checkInput(String element) {
+        for (int i = 0; i < element.length(); i++) {
+            if (indexOf(element.charAt(i)) < 0)
+                throw new IllegalArgumentException("The string must contain only letters of the English alphabet");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ru.hse.java.trie;
+
+/**
+ * Trie whose nodes keep children in a bitmap-compressed array indexed by letter,
+ * see {@link BitmapNode}.
+ * It is the plain variant of {@link TrieImpl} over the same nodes: no snapshots,
+ * no Fenwick trees and no overrides of the default methods of {@link Trie},
+ * so it serves as the reference for the tests of TrieImpl and as the baseline of the benchmarks.
+ * Interface : add, remove, contains, howManyStartsWithPrefix, nextString.
+ */
+public class ArrayTrie extends BitmapTrie<ArrayTrie.TrieNode> {
+
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+    static class TrieNode extends BitmapNode<TrieNode> {
+        private TrieNode() {
+            super(NO_CHILDREN);
+        }
+
+        @Override
+        TrieNode newNode() {
+            return new TrieNode();
+        }
+    }
+
+    public ArrayTrie() {
+        super(new TrieNode());
+    }
+
+    @Override
+    public boolean add(String element) {
+        Alphabet.checkInput(element);
+
+        if (contains(element))
+            return false;
+
+        root.countWordsInSubtree++;
+        TrieNode currentNode = root;
+        for (int i = 0; i < element.length(); i++) {
+            int letter = Alphabet.indexOf(element.charAt(i));
+            TrieNode nextNode = currentNode.getNextNode(letter);
+            currentNode = nextNode == null ? currentNode.makeNextNode(letter) : nextNode;
+            currentNode.countWordsInSubtree++;
+        }
+        currentNode.isEnd = true;
+
+        return true;
+    }
+
+    @Override
+    public boolean remove(String element) {
+        if (!contains(element))
+            return false;
+
+        root.countWordsInSubtree--;
+        TrieNode currentNode = root;
+        for (int i = 0; i < element.length(); i++) {
+            int letter = Alphabet.indexOf(element.charAt(i));
+            TrieNode nextNode = currentNode.getNextNode(letter);
+            if (--nextNode.countWordsInSubtree == 0) {
+                currentNode.removeNextNode(letter);
+                return true;
+            }
+            currentNode = nextNode;
+        }
+        currentNode.isEnd = false;
+
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+package ru.hse.java.trie;
+
+import java.util.Arrays;
+
+/**
+ * Trie node which keeps children in a bitmap-compressed array indexed by letter.
+ * A node stores a 52-bit mask of present letters and a packed array with exactly
+ * one slot per present child, so lookups are a mask test plus a popcount and
+ * never box characters.
+ *
+ * @param <N> type of the nodes of a trie
+ */
+abstract class BitmapNode<N extends BitmapNode<N>> {
+    long childMask = 0;
+    N[] nextNodes;
+    boolean isEnd = false;
+
+    int countWordsInSubtree = 0;
+
+    /**
+     * @param noChildren empty array of the node type
+     */
+    BitmapNode(N[] noChildren) {
+        nextNodes = noChildren;
+    }
+
+    /**
+     * @return new node without children, which makeNextNode links under a letter
+     */
+    abstract N newNode();
+
+    /**
+     * @param letter
+     * @return position of the child for letter in nextNodes, which are ordered by letter
+     */
+    final int slot(int letter) {
+        return Long.bitCount(childMask & ((1L << letter) - 1));
+    }
+
+    final N getNextNode(int letter) {
+        if ((childMask & (1L << letter)) == 0) {
+            return null;
+        }
+        return nextNodes[slot(letter)];
+    }
+
+    final N makeNextNode(int letter) {
+        N node = newNode();
+        putNextNode(letter, node);
+        return node;
+    }
+
+    /**
+     * Links node as the child for letter, replacing the previous child if any
+     */
+    final void putNextNode(int letter, N node) {
+        int slot = slot(letter);
+        if ((childMask & (1L << letter)) != 0) {
+            nextNodes[slot] = node;
+            return;
+        }
+        N[] newNodes = Arrays.copyOf(nextNodes, nextNodes.length + 1);
+        System.arraycopy(nextNodes, slot, newNodes, slot + 1, nextNodes.length - slot);
+        newNodes[slot] = node;
+        nextNodes = newNodes;
+        childMask |= 1L << letter;
+        onChildrenChanged();
+    }
+
+    final void removeNextNode(int letter) {
+        int slot = slot(letter);
+        N[] newNodes = Arrays.copyOf(nextNodes, nextNodes.length - 1);
+        System.arraycopy(nextNodes, slot + 1, newNodes, slot, newNodes.length - slot);
+        nextNodes = newNodes;
+        childMask &= ~(1L << letter);
+        onChildrenChanged();
+    }
+
+    /**
+     * Called after a child is linked or unlinked, so a node can rebuild
+     * what it keeps per slot
+     */
+    void onChildrenChanged() {
+    }
+
+    /**
+     * @param letter
+     * @return the number of words in the children for letters less than passed one
+     */
+    final int countWordsBefore(int letter) {
+        return countWordsInSlots(slot(letter));
+    }
+
+    /**
+     * @param slots
+     * @return the number of words in the subtrees of the first slots children
+     */
+    int countWordsInSlots(int slots) {
+        int result = 0;
+        for (int i = slots - 1; i >= 0; i--) {
+            result += nextNodes[i].countWordsInSubtree;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,105 @@
+package ru.hse.java.trie;
+
+/**
+ * Base of the tries over {@link BitmapNode}s with one letter per edge: the descent,
+ * the counts and rank and select, which the tries differ in add and remove only.
+ *
+ * @param <N> type of the nodes of a trie
+ */
+abstract class BitmapTrie<N extends BitmapNode<N>> implements Trie {
+
+    final N root;
+
+    BitmapTrie(N root) {
+        this.root = root;
+    }
+
+    /**
+     * The descent on trie along the passed string
+     *
+     * @param path
+     * @return last node on path or null if string is absent in trie
+     */
+    final N traverse(String path) {
+        N currentNode = root;
+        for (int i = 0; i < path.length() && currentNode != null; i++) {
+            int letter = Alphabet.indexOf(path.charAt(i));
+            currentNode = letter < 0 ? null : currentNode.getNextNode(letter);
+        }
+        return currentNode;
+    }
+
+    @Override
+    public boolean contains(String element) {
+        N finishNode = traverse(element);
+        return finishNode != null && finishNode.isEnd;
+    }
+
+    @Override
+    public int size() {
+        return root.countWordsInSubtree;
+    }
+
+    @Override
+    public int howManyStartsWithPrefix(String prefix) {
+        N finishNode = traverse(prefix);
+        return finishNode == null ? 0 : finishNode.countWordsInSubtree;
+    }
+
+    /**
+     * Expected complexity: O(|element|)
+     */
+    @Override
+    public int rank(String element) {
+        int result = 0;
+        N currentNode = root;
+        for (int i = 0; i < element.length(); i++) {
+            if (currentNode.isEnd) {
+                result++;
+            }
+
+            char symbol = element.charAt(i);
+            result += currentNode.countWordsBefore(Alphabet.lettersBefore(symbol));
+
+            int letter = Alphabet.indexOf(symbol);
+            currentNode = letter < 0 ? null : currentNode.getNextNode(letter);
+            if (currentNode == null) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Expected complexity: O(|trie depth|)
+     */
+    @Override
+    public String select(int index) {
+        if (index < 0 || index >= size()) {
+            return null;
+        }
+
+        StringBuilder stringBuilder = new StringBuilder();
+        N currentNode = root;
+        while (true) {
+            if (currentNode.isEnd) {
+                if (index == 0) {
+                    return stringBuilder.toString();
+                }
+                index--;
+            }
+
+            long mask = currentNode.childMask;
+            for (N next : currentNode.nextNodes) {
+                int letter = Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                if (index < next.countWordsInSubtree) {
+                    stringBuilder.append(Alphabet.letterAt(letter));
+                    currentNode = next;
+                    break;
+                }
+                index -= next.countWordsInSubtree;
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package ru.hse.java.trie;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe trie.
+ * contains, howManyStartsWithPrefix, size and nextString never block: children arrays are
+ * immutable and published through volatile fields, counters are updated atomically.
+ * add and remove lock only the subtree of the first letter of the word, so writers
+ * of words with different first letters do not contend.
+ * Aggregate reads (howManyStartsWithPrefix, nextString) are weakly consistent: they reflect
+ * every update that completed before the call and may or may not reflect concurrent ones.
+ */
+public class ConcurrentTrie implements Trie {
+
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+    private static final AtomicReferenceFieldUpdater<TrieNode, TrieNode[]> NEXT_NODES =
+            AtomicReferenceFieldUpdater.newUpdater(TrieNode.class, TrieNode[].class, "nextNodes");
+    private static final AtomicIntegerFieldUpdater<TrieNode> COUNT_WORDS =
+            AtomicIntegerFieldUpdater.newUpdater(TrieNode.class, "countWordsInSubtree");
+
+    private static class TrieNode {
+        private final int letter;
+        private volatile TrieNode[] nextNodes = NO_CHILDREN;
+        private volatile boolean isEnd = false;
+
+        private volatile int countWordsInSubtree = 0;
+
+        private TrieNode(int letter) {
+            this.letter = letter;
+        }
+
+        /**
+         * @param nodes children ordered by letter
+         * @param letter
+         * @return position of the child for letter or (-(insertion point) - 1)
+         */
+        private static int slot(TrieNode[] nodes, int letter) {
+            int low = 0;
+            int high = nodes.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (nodes[middle].letter < letter) {
+                    low = middle + 1;
+                } else if (nodes[middle].letter > letter) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private TrieNode getNextNode(int letter) {
+            TrieNode[] nodes = nextNodes;
+            int slot = slot(nodes, letter);
+            return slot < 0 ? null : nodes[slot];
+        }
+
+        /**
+         * Only the writer holding the lock of the letter subtree modifies its slot,
+         * but slots of the root are shared by all writers, hence CAS
+         */
+        private TrieNode makeNextNode(int letter) {
+            TrieNode node = new TrieNode(letter);
+            while (true) {
+                TrieNode[] nodes = nextNodes;
+                int slot = -slot(nodes, letter) - 1;
+                TrieNode[] newNodes = new TrieNode[nodes.length + 1];
+                System.arraycopy(nodes, 0, newNodes, 0, slot);
+                System.arraycopy(nodes, slot, newNodes, slot + 1, nodes.length - slot);
+                newNodes[slot] = node;
+                if (NEXT_NODES.compareAndSet(this, nodes, newNodes)) {
+                    return node;
+                }
+            }
+        }
+
+        private void removeNextNode(int letter) {
+            while (true) {
+                TrieNode[] nodes = nextNodes;
+                int slot = slot(nodes, letter);
+                TrieNode[] newNodes = NO_CHILDREN;
+                if (nodes.length > 1) {
+                    newNodes = new TrieNode[nodes.length - 1];
+                    System.arraycopy(nodes, 0, newNodes, 0, slot);
+                    System.arraycopy(nodes, slot + 1, newNodes, slot, newNodes.length - slot);
+                }
+                if (NEXT_NODES.compareAndSet(this, nodes, newNodes)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private final TrieNode root = new TrieNode(-1);
+
+    /**
+     * locks[letter] guards the subtree of the root child for letter, locks[Alphabet.SIZE] guards the empty string
+     */
+    private final Lock[] locks = new Lock[Alphabet.SIZE + 1];
+
+    public ConcurrentTrie() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    private Lock lockFor(String element) {
+        return element.isEmpty() ? locks[Alphabet.SIZE] : locks[Alphabet.indexOf(element.charAt(0))];
+    }
+
+    /**
+     * The descent on trie along the passed string
+     *
+     * @param path
+     * @return last node on path or null if string is absent in trie
+     */
+    private TrieNode traverse(String path) {
+        TrieNode currentNode = root;
+        for (int i = 0; i < path.length() && currentNode != null; i++) {
+            int letter = Alphabet.indexOf(path.charAt(i));
+            currentNode = letter < 0 ? null : currentNode.getNextNode(letter);
+        }
+        return currentNode;
+    }
+
+    /**
+     * @param element
+     * @return the number of trie strings which are lexicographically less than passed one
+     */
+    @Override
+    public int rank(String element) {
+        int result = 0;
+        TrieNode currentNode = root;
+        for (int i = 0; i < element.length(); i++) {
+            if (currentNode.isEnd) {
+                result++;
+            }
+
+            char symbol = element.charAt(i);
+            int lettersBefore = Alphabet.lettersBefore(symbol);
+            for (TrieNode next : currentNode.nextNodes) {
+                if (next.letter >= lettersBefore) {
+                    break;
+                }
+                result += next.countWordsInSubtree;
+            }
+
+            int letter = Alphabet.indexOf(symbol);
+            currentNode = letter < 0 ? null : currentNode.getNextNode(letter);
+            if (currentNode == null) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param pos
+     * @return String at position pos (starting from zero) among all trie
+     * strings sorted lexicographically or null if there is no such string
+     */
+    @Override
+    public String select(int pos) {
+        if (pos < 0) {
+            return null;
+        }
+
+        StringBuilder stringBuilder = new StringBuilder();
+        TrieNode currentNode = root;
+        while (currentNode != null) {
+            if (currentNode.isEnd) {
+                if (pos == 0) {
+                    return stringBuilder.toString();
+                }
+                pos--;
+            }
+
+            TrieNode nextNode = null;
+            for (TrieNode next : currentNode.nextNodes) {
+                int count = next.countWordsInSubtree;
+                if (pos < count) {
+                    nextNode = next;
+                    stringBuilder.append(Alphabet.letterAt(next.letter));
+                    break;
+                }
+                pos -= count;
+            }
+            currentNode = nextNode;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean add(String element) {
+        Alphabet.checkInput(element);
+
+        Lock lock = lockFor(element);
+        lock.lock();
+        try {
+            if (contains(element))
+                return false;
+
+            COUNT_WORDS.incrementAndGet(root);
+            TrieNode currentNode = root;
+            for (int i = 0; i < element.length(); i++) {
+                int letter = Alphabet.indexOf(element.charAt(i));
+                TrieNode nextNode = currentNode.getNextNode(letter);
+                currentNode = nextNode == null ? currentNode.makeNextNode(letter) : nextNode;
+                COUNT_WORDS.incrementAndGet(currentNode);
+            }
+            currentNode.isEnd = true;
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(String element) {
+        TrieNode finishNode = traverse(element);
+        return finishNode != null && finishNode.isEnd;
+    }
+
+    @Override
+    public boolean remove(String element) {
+        if (!contains(element))
+            return false;
+
+        Lock lock = lockFor(element);
+        lock.lock();
+        try {
+            TrieNode finishNode = traverse(element);
+            if (finishNode == null || !finishNode.isEnd)
+                return false;
+            finishNode.isEnd = false;
+
+            COUNT_WORDS.decrementAndGet(root);
+            TrieNode currentNode = root;
+            for (int i = 0; i < element.length(); i++) {
+                int letter = Alphabet.indexOf(element.charAt(i));
+                TrieNode nextNode = currentNode.getNextNode(letter);
+                if (COUNT_WORDS.decrementAndGet(nextNode) == 0) {
+                    currentNode.removeNextNode(letter);
+                    break;
+                }
+                currentNode = nextNode;
+            }
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return root.countWordsInSubtree;
+    }
+
+    @Override
+    public int howManyStartsWithPrefix(String prefix) {
+        TrieNode finishNode = traverse(prefix);
+        return finishNode == null ? 0 : finishNode.countWordsInSubtree;
+    }
+}
@@ -0,0 +1,259 @@
+package ru.hse.java.trie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only double-array trie: nodes are indices in int arrays instead of objects.
+ * The child of node s by letter l is t = base[s] + l + 1 if check[t] == s,
+ * so a step of the descent reads two neighbouring arrays and no pointers.
+ * countWordsInSubtree is kept for every node, so howManyStartsWithPrefix stays O(|prefix|).
+ * Interface : contains, howManyStartsWithPrefix, nextString, size.
+ */
+public class DoubleArrayTrie implements Trie {
+
+    private static final int ROOT = 1;
+    private static final int FREE = 0;
+    private static final int NO_PARENT = -1;
+
+    private int[] base;
+    private int[] check;
+    private int[] countWordsInSubtree;
+    private boolean[] isEnd;
+
+    private int firstFree = ROOT + 1;
+    private int maxUsed = ROOT;
+
+    private DoubleArrayTrie(int capacity) {
+        base = new int[capacity];
+        check = new int[capacity];
+        countWordsInSubtree = new int[capacity];
+        isEnd = new boolean[capacity];
+        check[ROOT] = NO_PARENT;
+    }
+
+    /**
+     * Builds a trie from strictly increasing strings. Any Trie can be passed,
+     * since it iterates over its strings in lexicographic order.
+     *
+     * @param sortedWords strings consisting of English letters in lexicographic order
+     * @return trie with the passed strings
+     * @throws IllegalArgumentException if a string has other chars or strings are not strictly increasing
+     */
+    public static DoubleArrayTrie fromSorted(Iterable<String> sortedWords) {
+        List<String> words = new ArrayList<>();
+        for (String element : sortedWords) {
+            Alphabet.checkInput(element);
+            if (!words.isEmpty() && words.get(words.size() - 1).compareTo(element) >= 0) {
+                throw new IllegalArgumentException("The strings must be strictly increasing: "
+                        + words.get(words.size() - 1) + ", " + element);
+            }
+            words.add(element);
+        }
+
+        DoubleArrayTrie trie = new DoubleArrayTrie(Math.max(2 * words.size(), Alphabet.SIZE) + ROOT + 1);
+        trie.build(ROOT, words, 0, words.size(), 0);
+        trie.trim();
+        return trie;
+    }
+
+    private void ensureCapacity(int index) {
+        if (index < check.length) {
+            return;
+        }
+        int capacity = Math.max(2 * check.length, index + 1);
+        base = Arrays.copyOf(base, capacity);
+        check = Arrays.copyOf(check, capacity);
+        countWordsInSubtree = Arrays.copyOf(countWordsInSubtree, capacity);
+        isEnd = Arrays.copyOf(isEnd, capacity);
+    }
+
+    private void trim() {
+        base = Arrays.copyOf(base, maxUsed + 1);
+        check = Arrays.copyOf(check, maxUsed + 1);
+        countWordsInSubtree = Arrays.copyOf(countWordsInSubtree, maxUsed + 1);
+        isEnd = Arrays.copyOf(isEnd, maxUsed + 1);
+    }
+
+    /**
+     * @param codes ascending codes of children
+     * @param codesCount
+     * @return smallest base which puts all children into free cells
+     */
+    private int findBase(int[] codes, int codesCount) {
+        for (int position = Math.max(firstFree, codes[0] + 1); ; position++) {
+            ensureCapacity(position);
+            if (check[position] != FREE) {
+                continue;
+            }
+            int candidate = position - codes[0];
+            boolean isFree = true;
+            for (int i = 1; i < codesCount && isFree; i++) {
+                ensureCapacity(candidate + codes[i]);
+                isFree = check[candidate + codes[i]] == FREE;
+            }
+            if (isFree) {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * Fills node with strings words[from..to-1], which share their first depth chars
+     */
+    private void build(int node, List<String> words, int from, int to, int depth) {
+        countWordsInSubtree[node] = to - from;
+        if (from < to && words.get(from).length() == depth) {
+            isEnd[node] = true;
+            from++;
+        }
+        if (from == to) {
+            return;
+        }
+
+        int[] codes = new int[Alphabet.SIZE];
+        int[] starts = new int[Alphabet.SIZE + 1];
+        int codesCount = 0;
+        for (int i = from; i < to; i++) {
+            int code = Alphabet.indexOf(words.get(i).charAt(depth)) + 1;
+            if (codesCount == 0 || codes[codesCount - 1] != code) {
+                codes[codesCount] = code;
+                starts[codesCount] = i;
+                codesCount++;
+            }
+        }
+        starts[codesCount] = to;
+
+        int nodeBase = findBase(codes, codesCount);
+        base[node] = nodeBase;
+        for (int i = 0; i < codesCount; i++) {
+            check[nodeBase + codes[i]] = node;
+            maxUsed = Math.max(maxUsed, nodeBase + codes[i]);
+        }
+        while (firstFree < check.length && check[firstFree] != FREE) {
+            firstFree++;
+        }
+
+        for (int i = 0; i < codesCount; i++) {
+            build(nodeBase + codes[i], words, starts[i], starts[i + 1], depth + 1);
+        }
+    }
+
+    /**
+     * @return index of the child or -1
+     */
+    private int getNextNode(int node, int letter) {
+        int next = base[node] + letter + 1;
+        return next < check.length && check[next] == node ? next : -1;
+    }
+
+    /**
+     * The descent on trie along the passed string
+     *
+     * @param path
+     * @return index of the last node on path or -1 if string is absent in trie
+     */
+    private int traverse(String path) {
+        int currentNode = ROOT;
+        for (int i = 0; i < path.length() && currentNode >= 0; i++) {
+            int letter = Alphabet.indexOf(path.charAt(i));
+            currentNode = letter < 0 ? -1 : getNextNode(currentNode, letter);
+        }
+        return currentNode;
+    }
+
+    /**
+     * @param element
+     * @return the number of trie strings which are lexicographically less than passed one
+     */
+    @Override
+    public int rank(String element) {
+        int result = 0;
+        int currentNode = ROOT;
+        for (int i = 0; i < element.length(); i++) {
+            if (isEnd[currentNode]) {
+                result++;
+            }
+
+            char symbol = element.charAt(i);
+            int lettersBefore = Alphabet.lettersBefore(symbol);
+            for (int letter = 0; letter < lettersBefore; letter++) {
+                int next = getNextNode(currentNode, letter);
+                if (next >= 0) {
+                    result += countWordsInSubtree[next];
+                }
+            }
+
+            int letter = Alphabet.indexOf(symbol);
+            currentNode = letter < 0 ? -1 : getNextNode(currentNode, letter);
+            if (currentNode < 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param pos
+     * @return String at position pos (starting from zero) among all trie
+     * strings sorted lexicographically or null if pos is not less than trie size
+     */
+    @Override
+    public String select(int pos) {
+        if (pos < 0 || pos >= size()) {
+            return null;
+        }
+
+        StringBuilder stringBuilder = new StringBuilder();
+        int currentNode = ROOT;
+        while (true) {
+            if (isEnd[currentNode]) {
+                if (pos == 0) {
+                    return stringBuilder.toString();
+                }
+                pos--;
+            }
+
+            for (int letter = 0; letter < Alphabet.SIZE; letter++) {
+                int next = getNextNode(currentNode, letter);
+                if (next < 0) {
+                    continue;
+                }
+                if (pos < countWordsInSubtree[next]) {
+                    stringBuilder.append(Alphabet.letterAt(letter));
+                    currentNode = next;
+                    break;
+                }
+                pos -= countWordsInSubtree[next];
+            }
+        }
+    }
+
+    @Override
+    public boolean add(String element) {
+        throw new UnsupportedOperationException("Double-array trie is read-only");
+    }
+
+    @Override
+    public boolean contains(String element) {
+        int finishNode = traverse(element);
+        return finishNode >= 0 && isEnd[finishNode];
+    }
+
+    @Override
+    public boolean remove(String element) {
+        throw new UnsupportedOperationException("Double-array trie is read-only");
+    }
+
+    @Override
+    public int size() {
+        return countWordsInSubtree[ROOT];
+    }
+
+    @Override
+    public int howManyStartsWithPrefix(String prefix) {
+        int finishNode = traverse(prefix);
+        return finishNode < 0 ? 0 : countWordsInSubtree[finishNode];
+    }
+}
@@ -0,0 +1,101 @@
+package ru.hse.java.trie;
+
+import java.util.Objects;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * TrieMap specialized for int values, which are kept in the nodes without boxing,
+ * e.g. for counting frequencies of strings.
+ * put, increment and merge descend once, like in {@link TrieMap}; add puts a key with zero value.
+ * Interface : add, remove, contains, howManyStartsWithPrefix, nextString, get, put, increment, merge.
+ */
+public class IntTrieMap extends AbstractTrieMap<IntTrieMap.TrieNode> {
+
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+    static class TrieNode extends BitmapNode<TrieNode> {
+        private int value = 0;
+
+        private TrieNode() {
+            super(NO_CHILDREN);
+        }
+
+        @Override
+        TrieNode newNode() {
+            return new TrieNode();
+        }
+    }
+
+    public IntTrieMap() {
+        super(new TrieNode(), new TrieNode[16]);
+    }
+
+    @Override
+    void clearValue(TrieNode node) {
+        node.value = 0;
+    }
+
+    /**
+     * Expected complexity: O(|key|)
+     * @return value of key or defaultValue if it is absent in trie
+     */
+    public int getOrDefault(String key, int defaultValue) {
+        TrieNode finishNode = traverse(key);
+        return finishNode != null && finishNode.isEnd ? finishNode.value : defaultValue;
+    }
+
+    /**
+     * Expected complexity: O(|key|)
+     * @return value of key or zero if it is absent in trie
+     */
+    public int get(String key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Adds key or replaces its value
+     * Expected complexity: O(|key|)
+     * @return <tt>true</tt> if this map did not already contain the specified key
+     */
+    public boolean put(String key, int value) {
+        Alphabet.checkInput(key);
+        TrieNode finishNode = descend(key, true);
+        boolean isAdded = !finishNode.isEnd;
+        if (isAdded) {
+            addWord(key);
+        }
+        finishNode.value = value;
+        releasePath(key);
+        return isAdded;
+    }
+
+    /**
+     * Adds delta to the value of key, an absent key is added with value delta
+     * Expected complexity: O(|key|)
+     * @return new value of key
+     */
+    public int increment(String key, int delta) {
+        return merge(key, delta, Integer::sum);
+    }
+
+    /**
+     * Puts value if key is absent, otherwise replaces the value with the result of remapping
+     * Expected complexity: O(|key|) plus remapping
+     * @return new value of key
+     */
+    public int merge(String key, int value, IntBinaryOperator remapping) {
+        Objects.requireNonNull(remapping);
+        Alphabet.checkInput(key);
+
+        TrieNode finishNode = descend(key, true);
+        int newValue = value;
+        if (finishNode.isEnd) {
+            newValue = remapping.applyAsInt(finishNode.value, value);
+        } else {
+            addWord(key);
+        }
+        finishNode.value = newValue;
+        releasePath(key);
+        return newValue;
+    }
+}
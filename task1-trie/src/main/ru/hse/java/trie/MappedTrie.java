@@ -0,0 +1,357 @@
+package ru.hse.java.trie;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read-only trie which works directly over a file mapped into memory, so it is ready
+ * right after the file is opened and its nodes do not live in the Java heap.
+ * Interface : contains, howManyStartsWithPrefix, nextString, size.
+ *
+ * File layout (big-endian):
+ * <pre>
+ * int magic, int format version
+ * nodes, every node after all its children:
+ *     int countWordsInSubtree, byte isEnd, byte children count n,
+ *     n bytes of children letters (ascending), n ints of children offsets
+ * int offset of the root
+ * </pre>
+ * Offsets are ints, so a file is limited to 2 GB, and write throws IOException on larger tries.
+ */
+public class MappedTrie implements Trie {
+
+    private static final int MAGIC = 0x54524945;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    private static final int IS_END_OFFSET = 4;
+    private static final int CHILDREN_COUNT_OFFSET = 5;
+    private static final int LETTERS_OFFSET = 6;
+
+    private final ByteBuffer buffer;
+    private final int root;
+
+    private MappedTrie(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE + 4 || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a trie file");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported trie file version: " + buffer.getInt(4));
+        }
+        root = buffer.getInt(buffer.limit() - 4);
+    }
+
+    /**
+     * Maps the file written by {@link #write} into memory
+     *
+     * @param path
+     * @return trie over the file contents
+     */
+    public static MappedTrie open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedTrie(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes strictly increasing strings in one pass, keeping in memory only the
+     * nodes on the path of the last string. Any Trie can be passed, since it
+     * iterates over its strings in lexicographic order.
+     *
+     * The strings are written into a temporary file next to path, which replaces
+     * the file at path only after the whole trie is written, so a failed write
+     * leaves the previous file, or no file, at path.
+     *
+     * @param sortedWords strings consisting of English letters in lexicographic order
+     * @param path
+     * @throws IllegalArgumentException if a string has other chars or strings are not strictly increasing
+     */
+    public static void write(Iterable<String> sortedWords, Path path) throws IOException {
+        Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                new Writer(output).write(sortedWords);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * State of the writing: nodes on the path of the last string, which are not written yet
+     */
+    private static class Writer {
+        private final DataOutputStream output;
+        private boolean[] isEnd = new boolean[16];
+        private int[] countWords = new int[16];
+        private byte[][] childrenLetters = new byte[16][];
+        private int[][] childrenOffsets = new int[16][];
+        private int[] childrenCount = new int[16];
+        private int depth = 0;
+
+        /**
+         * The number of bytes written so far. DataOutputStream.size() stops at Integer.MAX_VALUE,
+         * so the offset is counted here as a long
+         */
+        private long offset = 0;
+
+        private Writer(DataOutputStream output) {
+            this.output = output;
+            open(0);
+        }
+
+        private void open(int depth) {
+            if (depth == isEnd.length) {
+                int capacity = 2 * isEnd.length;
+                isEnd = Arrays.copyOf(isEnd, capacity);
+                countWords = Arrays.copyOf(countWords, capacity);
+                childrenLetters = Arrays.copyOf(childrenLetters, capacity);
+                childrenOffsets = Arrays.copyOf(childrenOffsets, capacity);
+                childrenCount = Arrays.copyOf(childrenCount, capacity);
+            }
+            if (childrenLetters[depth] == null) {
+                childrenLetters[depth] = new byte[Alphabet.SIZE];
+                childrenOffsets[depth] = new int[Alphabet.SIZE];
+            }
+            isEnd[depth] = false;
+            countWords[depth] = 0;
+            childrenCount[depth] = 0;
+        }
+
+        /**
+         * Writes the node at depth, all its children are already written
+         *
+         * @return offset of the node
+         * @throws IOException if the node and the root offset after it do not fit into 2 GB
+         */
+        private int finish(int depth) throws IOException {
+            int nodeSize = LETTERS_OFFSET + 5 * childrenCount[depth];
+            if (offset + nodeSize + 4 > Integer.MAX_VALUE) {
+                throw new IOException("The trie does not fit into a file of 2 GB");
+            }
+            int nodeOffset = (int) offset;
+            output.writeInt(countWords[depth]);
+            output.writeByte(isEnd[depth] ? 1 : 0);
+            output.writeByte(childrenCount[depth]);
+            output.write(childrenLetters[depth], 0, childrenCount[depth]);
+            for (int i = 0; i < childrenCount[depth]; i++) {
+                output.writeInt(childrenOffsets[depth][i]);
+            }
+            offset += nodeSize;
+            return nodeOffset;
+        }
+
+        private void write(Iterable<String> sortedWords) throws IOException {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            offset = HEADER_SIZE;
+
+            String previous = null;
+            for (String element : sortedWords) {
+                int commonPrefix = 0;
+                if (previous != null) {
+                    int maxLength = Math.min(previous.length(), element.length());
+                    while (commonPrefix < maxLength && previous.charAt(commonPrefix) == element.charAt(commonPrefix)) {
+                        commonPrefix++;
+                    }
+                    if (commonPrefix == element.length()
+                            || commonPrefix < previous.length() && previous.charAt(commonPrefix) > element.charAt(commonPrefix)) {
+                        throw new IllegalArgumentException("The strings must be strictly increasing: "
+                                + previous + ", " + element);
+                    }
+                }
+
+                for (; depth > commonPrefix; depth--) {
+                    int offset = finish(depth);
+                    childrenOffsets[depth - 1][childrenCount[depth - 1] - 1] = offset;
+                    countWords[depth - 1] += countWords[depth];
+                }
+
+                for (int i = commonPrefix; i < element.length(); i++) {
+                    int letter = Alphabet.indexOf(element.charAt(i));
+                    if (letter < 0) {
+                        throw new IllegalArgumentException("The string must contain only letters of the English alphabet");
+                    }
+                    childrenLetters[depth][childrenCount[depth]++] = (byte) letter;
+                    depth++;
+                    open(depth);
+                }
+                isEnd[depth] = true;
+                countWords[depth]++;
+                previous = element;
+            }
+
+            for (; depth > 0; depth--) {
+                int offset = finish(depth);
+                childrenOffsets[depth - 1][childrenCount[depth - 1] - 1] = offset;
+                countWords[depth - 1] += countWords[depth];
+            }
+            output.writeInt(finish(0));
+        }
+    }
+
+    private int countWordsInSubtree(int node) {
+        return buffer.getInt(node);
+    }
+
+    private boolean isEnd(int node) {
+        return buffer.get(node + IS_END_OFFSET) != 0;
+    }
+
+    private int childrenCount(int node) {
+        return buffer.get(node + CHILDREN_COUNT_OFFSET);
+    }
+
+    private int childLetter(int node, int slot) {
+        return buffer.get(node + LETTERS_OFFSET + slot);
+    }
+
+    private int childOffset(int node, int slot) {
+        return buffer.getInt(node + LETTERS_OFFSET + childrenCount(node) + 4 * slot);
+    }
+
+    /**
+     * @param node
+     * @param letters
+     * @return how many children of node have letters less than passed number of letters
+     */
+    private int slot(int node, int letters) {
+        int low = 0;
+        int high = childrenCount(node);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (childLetter(node, middle) < letters) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return offset of the child or -1
+     */
+    private int getNextNode(int node, char symbol) {
+        int letter = Alphabet.indexOf(symbol);
+        if (letter < 0) {
+            return -1;
+        }
+        int slot = slot(node, letter);
+        if (slot == childrenCount(node) || childLetter(node, slot) != letter) {
+            return -1;
+        }
+        return childOffset(node, slot);
+    }
+
+    /**
+     * The descent on trie along the passed string
+     *
+     * @param path
+     * @return offset of the last node on path or -1 if string is absent in trie
+     */
+    private int traverse(String path) {
+        int currentNode = root;
+        for (int i = 0; i < path.length() && currentNode >= 0; i++) {
+            currentNode = getNextNode(currentNode, path.charAt(i));
+        }
+        return currentNode;
+    }
+
+    /**
+     * @param element
+     * @return the number of trie strings which are lexicographically less than passed one
+     */
+    @Override
+    public int rank(String element) {
+        int result = 0;
+        int currentNode = root;
+        for (int i = 0; i < element.length(); i++) {
+            if (isEnd(currentNode)) {
+                result++;
+            }
+
+            char symbol = element.charAt(i);
+            int lessChildren = slot(currentNode, Alphabet.lettersBefore(symbol));
+            for (int j = 0; j < lessChildren; j++) {
+                result += countWordsInSubtree(childOffset(currentNode, j));
+            }
+
+            currentNode = getNextNode(currentNode, symbol);
+            if (currentNode < 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param pos
+     * @return String at position pos (starting from zero) among all trie
+     * strings sorted lexicographically or null if pos is not less than trie size
+     */
+    @Override
+    public String select(int pos) {
+        if (pos < 0 || pos >= size()) {
+            return null;
+        }
+
+        StringBuilder stringBuilder = new StringBuilder();
+        int currentNode = root;
+        while (true) {
+            if (isEnd(currentNode)) {
+                if (pos == 0) {
+                    return stringBuilder.toString();
+                }
+                pos--;
+            }
+
+            for (int slot = 0; slot < childrenCount(currentNode); slot++) {
+                int next = childOffset(currentNode, slot);
+                if (pos < countWordsInSubtree(next)) {
+                    stringBuilder.append(Alphabet.letterAt(childLetter(currentNode, slot)));
+                    currentNode = next;
+                    break;
+                }
+                pos -= countWordsInSubtree(next);
+            }
+        }
+    }
+
+    @Override
+    public boolean add(String element) {
+        throw new UnsupportedOperationException("Mapped trie is read-only");
+    }
+
+    @Override
+    public boolean contains(String element) {
+        int finishNode = traverse(element);
+        return finishNode >= 0 && isEnd(finishNode);
+    }
+
+    @Override
+    public boolean remove(String element) {
+        throw new UnsupportedOperationException("Mapped trie is read-only");
+    }
+
+    @Override
+    public int size() {
+        return countWordsInSubtree(root);
+    }
+
+    @Override
+    public int howManyStartsWithPrefix(String prefix) {
+        int finishNode = traverse(prefix);
+        return finishNode < 0 ? 0 : countWordsInSubtree(finishNode);
+    }
+}
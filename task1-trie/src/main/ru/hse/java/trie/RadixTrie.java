@@ -0,0 +1,250 @@
+package ru.hse.java.trie;
+
+/**
+ * Radix (path-compressed) trie: chains of nodes with a single child and no word end
+ * are collapsed into one edge labeled with the whole chain.
+ * Interface : add, remove, contains, howManyStartsWithPrefix, nextString.
+ */
+public class RadixTrie implements Trie {
+
+    private static final RadixNode[] NO_CHILDREN = new RadixNode[0];
+
+    static class RadixNode extends BitmapNode<RadixNode> {
+        private String label;
+
+        private RadixNode(String label) {
+            super(NO_CHILDREN);
+            this.label = label;
+        }
+
+        @Override
+        RadixNode newNode() {
+            return new RadixNode("");
+        }
+
+        /**
+         * @param symbol
+         * @return child whose label starts with symbol or null
+         */
+        private RadixNode getNextNode(char symbol) {
+            int letter = Alphabet.indexOf(symbol);
+            return letter < 0 ? null : getNextNode(letter);
+        }
+
+        private void putNextNode(RadixNode node) {
+            putNextNode(Alphabet.indexOf(node.label.charAt(0)), node);
+        }
+
+        /**
+         * Splits the edge to this node after length chars of its label
+         *
+         * @param length
+         * @return new node in the middle of the edge
+         */
+        private RadixNode split(int length) {
+            RadixNode middle = new RadixNode(label.substring(0, length));
+            middle.countWordsInSubtree = countWordsInSubtree;
+            label = label.substring(length);
+            middle.putNextNode(this);
+            return middle;
+        }
+
+        /**
+         * Collapses this node with its only child if it does not end a word
+         */
+        private void mergeWithChild() {
+            if (isEnd || nextNodes.length != 1) {
+                return;
+            }
+            RadixNode child = nextNodes[0];
+            label = label + child.label;
+            childMask = child.childMask;
+            nextNodes = child.nextNodes;
+            isEnd = child.isEnd;
+        }
+    }
+
+    private final RadixNode root = new RadixNode("");
+
+    /**
+     * @param first
+     * @param second
+     * @param offset
+     * @return length of the common prefix of first and second starting from offset
+     */
+    private static int commonPrefixLength(String first, String second, int offset) {
+        int length = 0;
+        int maxLength = Math.min(first.length(), second.length() - offset);
+        while (length < maxLength && first.charAt(length) == second.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * The descent on trie along the passed string
+     *
+     * @param path
+     * @param isPrefix whether path may end in the middle of an edge
+     * @return node at the end of the path (or below it, if the path ends inside an edge) or null
+     */
+    private RadixNode traverse(String path, boolean isPrefix) {
+        RadixNode currentNode = root;
+        int pos = 0;
+        while (pos < path.length()) {
+            RadixNode nextNode = currentNode.getNextNode(path.charAt(pos));
+            if (nextNode == null) {
+                return null;
+            }
+            int length = commonPrefixLength(nextNode.label, path, pos);
+            if (length < nextNode.label.length()) {
+                return isPrefix && pos + length == path.length() ? nextNode : null;
+            }
+            pos += length;
+            currentNode = nextNode;
+        }
+        return currentNode;
+    }
+
+    /**
+     * @param element
+     * @return the number of trie strings which are lexicographically less than passed one
+     */
+    @Override
+    public int rank(String element) {
+        int result = 0;
+        RadixNode currentNode = root;
+        int pos = 0;
+        while (pos < element.length()) {
+            if (currentNode.isEnd) {
+                result++;
+            }
+
+            char symbol = element.charAt(pos);
+            result += currentNode.countWordsBefore(Alphabet.lettersBefore(symbol));
+
+            RadixNode nextNode = currentNode.getNextNode(symbol);
+            if (nextNode == null) {
+                break;
+            }
+            int length = commonPrefixLength(nextNode.label, element, pos);
+            if (length < nextNode.label.length()) {
+                if (pos + length < element.length() && nextNode.label.charAt(length) < element.charAt(pos + length)) {
+                    result += nextNode.countWordsInSubtree;
+                }
+                break;
+            }
+            pos += length;
+            currentNode = nextNode;
+        }
+        return result;
+    }
+
+    /**
+     * @param pos
+     * @return String at position pos (starting from zero) among all trie
+     * strings sorted lexicographically or null if pos is not less than trie size
+     */
+    @Override
+    public String select(int pos) {
+        if (pos < 0 || pos >= size()) {
+            return null;
+        }
+
+        StringBuilder stringBuilder = new StringBuilder();
+        RadixNode currentNode = root;
+        while (true) {
+            if (currentNode.isEnd) {
+                if (pos == 0) {
+                    return stringBuilder.toString();
+                }
+                pos--;
+            }
+
+            for (RadixNode next : currentNode.nextNodes) {
+                if (pos < next.countWordsInSubtree) {
+                    stringBuilder.append(next.label);
+                    currentNode = next;
+                    break;
+                }
+                pos -= next.countWordsInSubtree;
+            }
+        }
+    }
+
+    @Override
+    public boolean add(String element) {
+        Alphabet.checkInput(element);
+
+        if (contains(element))
+            return false;
+
+        root.countWordsInSubtree++;
+        RadixNode currentNode = root;
+        int pos = 0;
+        while (pos < element.length()) {
+            RadixNode nextNode = currentNode.getNextNode(element.charAt(pos));
+            if (nextNode == null) {
+                nextNode = new RadixNode(element.substring(pos));
+                currentNode.putNextNode(nextNode);
+            } else {
+                int length = commonPrefixLength(nextNode.label, element, pos);
+                if (length < nextNode.label.length()) {
+                    nextNode = nextNode.split(length);
+                    currentNode.putNextNode(nextNode);
+                }
+            }
+            pos += nextNode.label.length();
+            currentNode = nextNode;
+            currentNode.countWordsInSubtree++;
+        }
+        currentNode.isEnd = true;
+
+        return true;
+    }
+
+    @Override
+    public boolean contains(String element) {
+        RadixNode finishNode = traverse(element, false);
+        return finishNode != null && finishNode.isEnd;
+    }
+
+    @Override
+    public boolean remove(String element) {
+        if (!contains(element))
+            return false;
+
+        root.countWordsInSubtree--;
+        RadixNode currentNode = root;
+        int pos = 0;
+        while (pos < element.length()) {
+            RadixNode nextNode = currentNode.getNextNode(element.charAt(pos));
+            if (--nextNode.countWordsInSubtree == 0) {
+                currentNode.removeNextNode(Alphabet.indexOf(nextNode.label.charAt(0)));
+                if (currentNode != root) {
+                    currentNode.mergeWithChild();
+                }
+                return true;
+            }
+            pos += nextNode.label.length();
+            currentNode = nextNode;
+        }
+        currentNode.isEnd = false;
+        if (currentNode != root) {
+            currentNode.mergeWithChild();
+        }
+
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return root.countWordsInSubtree;
+    }
+
+    @Override
+    public int howManyStartsWithPrefix(String prefix) {
+        RadixNode finishNode = traverse(prefix, true);
+        return finishNode == null ? 0 : finishNode.countWordsInSubtree;
+    }
+}
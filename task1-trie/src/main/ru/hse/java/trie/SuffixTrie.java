@@ -0,0 +1,302 @@
+package ru.hse.java.trie;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+
+/**
+ * Trie which also answers substring queries. Besides the trie of strings it keeps
+ * a generalized suffix trie, where every suffix of every string is a path, so the
+ * strings containing a pattern are the strings whose suffixes pass through the node
+ * of the pattern. Each suffix node counts distinct strings, like countWordsInSubtree
+ * does for prefixes: an operation marks the nodes it has already counted with its
+ * stamp, so a string repeating a substring is counted once.
+ * The suffix trie is compacted like {@link RadixTrie}: chains of nodes with a single
+ * child where no suffix ends are collapsed into one edge, so it takes O(|element|)
+ * nodes per string, while add and remove take O(|element|^2) time.
+ * Interface : add, remove, contains, howManyStartsWithPrefix, nextString,
+ * containsSubstring, howManyContainSubstring.
+ */
+public class SuffixTrie implements Trie {
+
+    private static final SuffixNode[] NO_CHILDREN = new SuffixNode[0];
+
+    /**
+     * countWordsInSubtree of a suffix node is the number of strings which contain its substring.
+     * The label of the edge to the node is source.substring(start, end), and the chars of
+     * source before start are the path to the parent, so labels of a node and its child
+     * are adjacent in the source of the child and are merged without copying.
+     */
+    static class SuffixNode extends BitmapNode<SuffixNode> {
+        private String source;
+        private int start;
+        private int end;
+
+        /**
+         * The number of suffixes which end in the node
+         */
+        private int countSuffixEnds = 0;
+        private int stamp = 0;
+
+        private SuffixNode(String source, int start, int end) {
+            super(NO_CHILDREN);
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        SuffixNode newNode() {
+            return new SuffixNode(source, end, end);
+        }
+
+        private int labelLength() {
+            return end - start;
+        }
+
+        private int firstLetter() {
+            return Alphabet.indexOf(source.charAt(start));
+        }
+
+        /**
+         * Splits the edge to this node after length chars of its label
+         *
+         * @param length
+         * @return new node in the middle of the edge
+         */
+        private SuffixNode split(int length) {
+            SuffixNode middle = new SuffixNode(source, start, start + length);
+            middle.countWordsInSubtree = countWordsInSubtree;
+            middle.stamp = stamp;
+            start += length;
+            middle.putNextNode(firstLetter(), this);
+            return middle;
+        }
+
+        /**
+         * Collapses this node with its only child if no suffix ends in it.
+         * Then every occurrence of the substring of the node continues with the label of the child,
+         * so both nodes count the same strings once the operation is over. The node keeps its own
+         * count and stamp: it is already counted by the current operation, while the child may be not,
+         * and the later suffixes of the operation must not count the string in it again.
+         */
+        private void mergeWithChild() {
+            if (countSuffixEnds != 0 || nextNodes.length != 1) {
+                return;
+            }
+            SuffixNode child = nextNodes[0];
+            source = child.source;
+            start = child.start - labelLength();
+            end = child.end;
+            childMask = child.childMask;
+            nextNodes = child.nextNodes;
+            countSuffixEnds = child.countSuffixEnds;
+        }
+    }
+
+    private final TrieImpl words = new TrieImpl();
+    private final SuffixNode suffixRoot = new SuffixNode("", 0, 0);
+
+    /**
+     * Nodes on the path of the last suffix, path[i] is the i-th node from the root
+     */
+    private SuffixNode[] path = new SuffixNode[16];
+
+    /**
+     * Stamp of the last operation
+     */
+    private int stamp = 0;
+
+    /**
+     * Counts the string of the current operation in node unless it is already counted
+     */
+    private void mark(SuffixNode node, int delta) {
+        if (node.stamp != stamp) {
+            node.stamp = stamp;
+            node.countWordsInSubtree += delta;
+        }
+    }
+
+    /**
+     * Adds all suffixes of element, counting element once in every node on their paths.
+     * A suffix ends in a node: an edge is split where the suffix leaves it or ends inside it.
+     */
+    private void addSuffixes(String element) {
+        stamp++;
+        suffixRoot.countWordsInSubtree++;
+        for (int i = 0; i < element.length(); i++) {
+            SuffixNode currentNode = suffixRoot;
+            int pos = i;
+            while (pos < element.length()) {
+                int letter = Alphabet.indexOf(element.charAt(pos));
+                SuffixNode nextNode = currentNode.getNextNode(letter);
+                if (nextNode == null) {
+                    nextNode = new SuffixNode(element, pos, element.length());
+                    currentNode.putNextNode(letter, nextNode);
+                } else {
+                    int length = commonPrefixLength(nextNode, element, pos);
+                    if (length < nextNode.labelLength()) {
+                        nextNode = nextNode.split(length);
+                        currentNode.putNextNode(letter, nextNode);
+                    }
+                }
+                mark(nextNode, 1);
+                pos += nextNode.labelLength();
+                currentNode = nextNode;
+            }
+            currentNode.countSuffixEnds++;
+        }
+    }
+
+    /**
+     * Uncounts element in every node on the paths of its suffixes.
+     * The strings of a node are among the strings of its parent, so a node
+     * left without strings is removed together with its subtree; a node left
+     * with a single child and no suffix ends is merged with the child.
+     */
+    private void removeSuffixes(String element) {
+        stamp++;
+        suffixRoot.countWordsInSubtree--;
+        if (element.length() >= path.length) {
+            path = Arrays.copyOf(path, Math.max(2 * path.length, element.length() + 1));
+        }
+        for (int i = 0; i < element.length(); i++) {
+            SuffixNode currentNode = suffixRoot;
+            path[0] = suffixRoot;
+            int depth = 0;
+            int pos = i;
+            while (currentNode != null && pos < element.length()) {
+                currentNode = currentNode.getNextNode(Alphabet.indexOf(element.charAt(pos)));
+                // the rest of the path may be removed by a previous suffix, and a merged node
+                // may take the place of a removed one, so the label is compared as well
+                if (currentNode != null && commonPrefixLength(currentNode, element, pos) < currentNode.labelLength()) {
+                    currentNode = null;
+                }
+                if (currentNode != null) {
+                    mark(currentNode, -1);
+                    pos += currentNode.labelLength();
+                    path[++depth] = currentNode;
+                }
+            }
+            if (currentNode != null) {
+                currentNode.countSuffixEnds--;
+            }
+
+            for (; depth > 0; depth--) {
+                SuffixNode node = path[depth];
+                if (node.countWordsInSubtree == 0) {
+                    path[depth - 1].removeNextNode(node.firstLetter());
+                } else {
+                    node.mergeWithChild();
+                }
+            }
+        }
+        Arrays.fill(path, 0, element.length() + 1, null);
+    }
+
+    /**
+     * @return length of the common prefix of the label of node and element starting from offset
+     */
+    private static int commonPrefixLength(SuffixNode node, String element, int offset) {
+        int length = 0;
+        int maxLength = Math.min(node.labelLength(), element.length() - offset);
+        while (length < maxLength && node.source.charAt(node.start + length) == element.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    @Override
+    public boolean add(String element) {
+        if (!words.add(element))
+            return false;
+
+        addSuffixes(element);
+        return true;
+    }
+
+    @Override
+    public boolean contains(String element) {
+        return words.contains(element);
+    }
+
+    @Override
+    public boolean remove(String element) {
+        if (!words.remove(element))
+            return false;
+
+        removeSuffixes(element);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return words.size();
+    }
+
+    @Override
+    public int howManyStartsWithPrefix(String prefix) {
+        return words.howManyStartsWithPrefix(prefix);
+    }
+
+    @Override
+    public int rank(String element) {
+        return words.rank(element);
+    }
+
+    @Override
+    public String select(int index) {
+        return words.select(index);
+    }
+
+    @Override
+    public int countInRange(String from, String to) {
+        return words.countInRange(from, to);
+    }
+
+    @Override
+    public List<String> completions(String prefix, int limit) {
+        return words.completions(prefix, limit);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return words.iterator();
+    }
+
+    @Override
+    public Spliterator<String> spliterator() {
+        return words.spliterator();
+    }
+
+    /**
+     * Expected complexity: O(|substring|)
+     * @return the number of trie strings which contain substring
+     */
+    public int howManyContainSubstring(String substring) {
+        SuffixNode currentNode = suffixRoot;
+        int pos = 0;
+        while (pos < substring.length()) {
+            int letter = Alphabet.indexOf(substring.charAt(pos));
+            currentNode = letter < 0 ? null : currentNode.getNextNode(letter);
+            if (currentNode == null) {
+                return 0;
+            }
+            int length = commonPrefixLength(currentNode, substring, pos);
+            if (length < currentNode.labelLength() && pos + length < substring.length()) {
+                return 0;
+            }
+            pos += length;
+        }
+        return currentNode.countWordsInSubtree;
+    }
+
+    /**
+     * Expected complexity: O(|substring|)
+     * @return <tt>true</tt> if some trie string contains substring
+     */
+    public boolean containsSubstring(String substring) {
+        return howManyContainSubstring(substring) > 0;
+    }
+}
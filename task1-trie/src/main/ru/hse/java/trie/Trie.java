@@ -1,6 +1,8 @@
 package ru.hse.java.trie;
 
-public interface Trie {
+import java.util.*;
+
+public interface Trie extends Iterable<String> {
 
     /**
      * Expected complexity: O(|element|)
@@ -31,11 +33,183 @@ public interface Trie {
     int howManyStartsWithPrefix(String prefix);
 
     /**
-     * Get String in trie, next after [element] up to k elements
      * Expected complexity: O(|trie depth|)
+     * @return the number of Strings in trie which are lexicographically less than [element]
+     */
+    int rank(String element);
+
+    /**
+     * Expected complexity: O(|trie depth|)
+     * @return String at position index (starting from zero) in lexicographic order
+     *         or null if there is no such position
+     */
+    String select(int index);
+
+    /**
+     * Get String in trie, next after [element] up to k elements
+     * Expected complexity: O(|trie depth|), the default implementation calls rank and select
      * @return found String or null
      */
-    String nextString(String element, int k);
-}
+    default String nextString(String element, int k) {
+        int number = rank(element);
+        boolean isContains = contains(element);
+        if (!isContains && k == 0) {
+            return null;
+        }
+        return select(number + k - (isContains ? 0 : 1));
+    }
+
+    /**
+     * Checks every String of the batch
+     * The default implementation calls contains for every String
+     * @return array where i-th value is <tt>true</tt> if trie contains i-th String of words
+     */
+    default boolean[] containsEach(List<String> words) {
+        boolean[] result = new boolean[words.size()];
+        int i = 0;
+        for (String element : words) {
+            result[i++] = contains(element);
+        }
+        return result;
+    }
+
+    /**
+     * Adds every String of the batch; if a String is illegal, the Strings before it stay added
+     * The default implementation calls add for every String
+     * @return the number of Strings which were not already in trie
+     */
+    default int addAll(Iterable<String> words) {
+        int result = 0;
+        for (String element : words) {
+            if (add(element)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Expected complexity: the same as rank
+     * @return the number of Strings s in trie such that from <= s < to
+     */
+    default int countInRange(String from, String to) {
+        return Math.max(0, rank(to) - rank(from));
+    }
+
+    /**
+     * Iterates over Strings s in trie such that from <= s < to in lexicographic order
+     * The default implementation calls nextString for every String
+     */
+    default Iterator<String> rangeIterator(String from, String to) {
+        int count = countInRange(from, to);
+        return new Iterator<>() {
+            private int remaining = count;
+            private String next = count == 0 ? null : select(rank(from));
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
 
+            @Override
+            public String next() {
+                if (remaining <= 0) {
+                    throw new NoSuchElementException();
+                }
+                String result = next;
+                remaining--;
+                next = remaining == 0 ? null : nextString(result, 1);
+                return result;
+            }
+        };
+    }
 
+    /**
+     * Get Strings in trie, which start with [prefix], in lexicographic order
+     * Expected complexity: O(|prefix| + total length of found strings),
+     * the default implementation calls nextString for every found String
+     * @return at most limit found Strings
+     */
+    default List<String> completions(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        if (limit <= 0 || howManyStartsWithPrefix(prefix) == 0) {
+            return result;
+        }
+
+        String current = contains(prefix) ? prefix : nextString(prefix, 1);
+        while (current != null && current.startsWith(prefix) && result.size() < limit) {
+            result.add(current);
+            current = nextString(current, 1);
+        }
+        return result;
+    }
+
+    /**
+     * Get Strings in trie within Levenshtein distance maxDistance from [query], in lexicographic order
+     * The default implementation computes the distance to every String in trie
+     * @return found Strings
+     */
+    default List<String> fuzzyMatches(String query, int maxDistance) {
+        List<String> result = new ArrayList<>();
+        if (maxDistance < 0) {
+            return result;
+        }
+
+        int[] previousRow = new int[query.length() + 1];
+        int[] currentRow = new int[query.length() + 1];
+        for (String element : this) {
+            if (Math.abs(element.length() - query.length()) > maxDistance) {
+                continue;
+            }
+            for (int j = 0; j <= query.length(); j++) {
+                previousRow[j] = j;
+            }
+            for (int i = 1; i <= element.length(); i++) {
+                currentRow[0] = i;
+                for (int j = 1; j <= query.length(); j++) {
+                    int replace = previousRow[j - 1] + (element.charAt(i - 1) == query.charAt(j - 1) ? 0 : 1);
+                    currentRow[j] = Math.min(replace, Math.min(previousRow[j], currentRow[j - 1]) + 1);
+                }
+                int[] row = previousRow;
+                previousRow = currentRow;
+                currentRow = row;
+            }
+            if (previousRow[query.length()] <= maxDistance) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Iterates over Strings in trie in lexicographic order
+     * The default implementation calls nextString for every String
+     */
+    @Override
+    default Iterator<String> iterator() {
+        return new Iterator<>() {
+            private String next = contains("") ? "" : nextString("", 1);
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String result = next;
+                next = nextString(result, 1);
+                return result;
+            }
+        };
+    }
+
+    @Override
+    default Spliterator<String> spliterator() {
+        return Spliterators.spliterator(iterator(), size(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL);
+    }
+}
@@ -1,25 +1,327 @@
 package ru.hse.java.trie;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Implementation of common trie.
- * Interface : add, remove, contains, howManyStartsWithPrefix, nextString.
+ * Interface : add, remove, contains, howManyStartsWithPrefix, nextString, snapshot, fuzzyMatches,
+ * rank, select, countInRange, rangeIterator, containsEach, addAll, stats.
  */
 public class TrieImpl implements Trie {
 
-    private static class TrieNode {
-        private final HashMap<Character, TrieNode> nextNodes = new HashMap<>();
-        private boolean isEnd = false;
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
 
-        private int countWordsInSubtree = 0;
+    /**
+     * Nodes with fewer children scan their counts linearly, which is cheaper
+     * than keeping a Fenwick tree for them
+     */
+    private static final int MIN_CHILDREN_FOR_FENWICK = 8;
+
+    /**
+     * Bitmap node, see {@link BitmapNode}, with the version for copy-on-write
+     * snapshots and a Fenwick tree over the counts of the children
+     */
+    private static class TrieNode extends BitmapNode<TrieNode> {
+        private final int version;
+        private int[] childCounts = null;
+
+        private TrieNode(int version) {
+            super(NO_CHILDREN);
+            this.version = version;
+        }
+
+        /**
+         * Children are created under a node, which may be modified in the current version,
+         * so they get the same version
+         */
+        @Override
+        TrieNode newNode() {
+            return new TrieNode(version);
+        }
+
+        @Override
+        void onChildrenChanged() {
+            rebuildChildCounts();
+        }
+
+        private int letterAt(int slot) {
+            long mask = childMask;
+            for (int i = 0; i < slot; i++) {
+                mask &= mask - 1;
+            }
+            return Long.numberOfTrailingZeros(mask);
+        }
+
+        /**
+         * Nodes of older versions are shared with snapshots, so they are copied
+         * before the first modification
+         *
+         * @param letter
+         * @param version
+         * @return child for letter, which may be modified in the passed version, or null
+         */
+        private TrieNode getMutableNextNode(int letter, int version) {
+            if ((childMask & (1L << letter)) == 0) {
+                return null;
+            }
+            int slot = slot(letter);
+            TrieNode node = nextNodes[slot];
+            if (node.version != version) {
+                node = node.copy(version);
+                nextNodes[slot] = node;
+            }
+            return node;
+        }
+
+        /**
+         * Same as getMutableNextNode for the child, which was already looked up
+         *
+         * @param letter
+         * @param node current child for letter
+         * @param version
+         * @return node or its copy, which replaced it in nextNodes
+         */
+        private TrieNode makeMutable(int letter, TrieNode node, int version) {
+            if (node.version == version) {
+                return node;
+            }
+            TrieNode copy = node.copy(version);
+            nextNodes[slot(letter)] = copy;
+            return copy;
+        }
+
+        private TrieNode copy(int version) {
+            TrieNode copy = new TrieNode(version);
+            copy.childMask = childMask;
+            copy.nextNodes = nextNodes.length == 0 ? NO_CHILDREN : nextNodes.clone();
+            copy.childCounts = childCounts == null ? null : childCounts.clone();
+            copy.isEnd = isEnd;
+            copy.countWordsInSubtree = countWordsInSubtree;
+            return copy;
+        }
+
+        /**
+         * @return deep copy of the subtree, whose nodes are allocated in depth-first order
+         */
+        private TrieNode copySubtree(int version) {
+            TrieNode copy = new TrieNode(version);
+            copy.childMask = childMask;
+            copy.isEnd = isEnd;
+            copy.countWordsInSubtree = countWordsInSubtree;
+            copy.nextNodes = nextNodes.length == 0 ? NO_CHILDREN : new TrieNode[nextNodes.length];
+            for (int i = 0; i < nextNodes.length; i++) {
+                copy.nextNodes[i] = nextNodes[i].copySubtree(version);
+            }
+            copy.rebuildChildCounts();
+            return copy;
+        }
+
+        private int countNodes() {
+            int result = 1;
+            for (TrieNode next : nextNodes) {
+                result += next.countNodes();
+            }
+            return result;
+        }
+
+        /**
+         * childCounts is a Fenwick tree over countWordsInSubtree of nextNodes,
+         * so the rank and select steps below cost O(log |alphabet|)
+         */
+        private void rebuildChildCounts() {
+            if (nextNodes.length < MIN_CHILDREN_FOR_FENWICK) {
+                childCounts = null;
+                return;
+            }
+            childCounts = new int[nextNodes.length];
+            for (int i = 1; i <= nextNodes.length; i++) {
+                childCounts[i - 1] += nextNodes[i - 1].countWordsInSubtree;
+                int parent = i + (i & -i);
+                if (parent <= nextNodes.length) {
+                    childCounts[parent - 1] += childCounts[i - 1];
+                }
+            }
+        }
+
+        private void updateChildCount(int letter, int delta) {
+            if (childCounts == null) {
+                return;
+            }
+            for (int i = slot(letter) + 1; i <= childCounts.length; i += i & -i) {
+                childCounts[i - 1] += delta;
+            }
+        }
+
+        /**
+         * @param slots
+         * @return how many words are in subtrees of the first slots children
+         */
+        @Override
+        int countWordsInSlots(int slots) {
+            int result = 0;
+            if (childCounts == null) {
+                for (int i = 0; i < slots; i++) {
+                    result += nextNodes[i].countWordsInSubtree;
+                }
+            } else {
+                for (int i = slots; i > 0; i -= i & -i) {
+                    result += childCounts[i - 1];
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @param pos
+         * @return slot of the child whose subtree holds the word at position pos
+         * (starting from zero) among the words in children subtrees
+         */
+        private int findChildByNumber(int pos) {
+            int slot = 0;
+            if (childCounts == null) {
+                while (pos >= nextNodes[slot].countWordsInSubtree) {
+                    pos -= nextNodes[slot].countWordsInSubtree;
+                    slot++;
+                }
+                return slot;
+            }
+            for (int step = Integer.highestOneBit(childCounts.length); step > 0; step >>= 1) {
+                if (slot + step <= childCounts.length && childCounts[slot + step - 1] <= pos) {
+                    slot += step;
+                    pos -= childCounts[slot - 1];
+                }
+            }
+            return slot;
+        }
+    }
+
+    private TrieNode root;
+    private int nodeCount;
+
+    /**
+     * Nodes with other versions belong to snapshots and must not be modified
+     */
+    private int version = 0;
+    private final boolean isReadOnly;
+    private int modCount = 0;
+
+    /**
+     * Stats computed at statsModCount, they are valid until the next modification
+     */
+    private TrieStats stats = null;
+    private int statsModCount = 0;
+
+    public TrieImpl() {
+        this(new TrieNode(0), 1, false);
+    }
+
+    private TrieImpl(TrieNode root, int nodeCount, boolean isReadOnly) {
+        this.root = root;
+        this.nodeCount = nodeCount;
+        this.isReadOnly = isReadOnly;
+    }
+
+    /**
+     * Builds a trie from strictly increasing strings in one pass. Nodes on the path of the
+     * last string stay open; when the next string leaves a node, the node is finished:
+     * it gets its children array, subtree count and Fenwick tree at once.
+     * Expected complexity: O(total length of strings)
+     *
+     * @param sortedWords strings consisting of English letters in lexicographic order
+     * @return trie with the passed strings
+     * @throws IllegalArgumentException if a string has other chars or strings are not strictly increasing
+     */
+    public static TrieImpl fromSorted(Iterable<String> sortedWords) {
+        TrieImpl trie = new TrieImpl();
+        TrieNode[] openNodes = new TrieNode[16];
+        TrieNode[][] openChildren = new TrieNode[16][];
+        int[] openChildrenCount = new int[16];
+        openNodes[0] = trie.root;
+        openChildren[0] = new TrieNode[Alphabet.SIZE];
+        int depth = 0;
+
+        String previous = null;
+        for (String element : sortedWords) {
+            int commonPrefix = 0;
+            if (previous != null) {
+                int maxLength = Math.min(previous.length(), element.length());
+                while (commonPrefix < maxLength && previous.charAt(commonPrefix) == element.charAt(commonPrefix)) {
+                    commonPrefix++;
+                }
+                if (commonPrefix == element.length()
+                        || commonPrefix < previous.length() && previous.charAt(commonPrefix) > element.charAt(commonPrefix)) {
+                    throw new IllegalArgumentException("The strings must be strictly increasing: "
+                            + previous + ", " + element);
+                }
+            }
+
+            for (; depth > commonPrefix; depth--) {
+                finishNode(openNodes, openChildren, openChildrenCount, depth);
+            }
+
+            for (int i = commonPrefix; i < element.length(); i++) {
+                int letter = Alphabet.indexOf(element.charAt(i));
+                if (letter < 0) {
+                    throw new IllegalArgumentException("The string must contain only letters of the English alphabet");
+                }
+                if (depth + 1 == openNodes.length) {
+                    int capacity = 2 * openNodes.length;
+                    openNodes = Arrays.copyOf(openNodes, capacity);
+                    openChildren = Arrays.copyOf(openChildren, capacity);
+                    openChildrenCount = Arrays.copyOf(openChildrenCount, capacity);
+                }
+
+                TrieNode node = new TrieNode(0);
+                openNodes[depth].childMask |= 1L << letter;
+                openChildren[depth][openChildrenCount[depth]++] = node;
+                depth++;
+                openNodes[depth] = node;
+                if (openChildren[depth] == null) {
+                    openChildren[depth] = new TrieNode[Alphabet.SIZE];
+                }
+                openChildrenCount[depth] = 0;
+                trie.nodeCount++;
+            }
+            openNodes[depth].isEnd = true;
+            previous = element;
+        }
+
+        for (; depth >= 0; depth--) {
+            finishNode(openNodes, openChildren, openChildrenCount, depth);
+        }
+        return trie;
+    }
+
+    private static void finishNode(TrieNode[] openNodes, TrieNode[][] openChildren, int[] openChildrenCount, int depth) {
+        TrieNode node = openNodes[depth];
+        int childrenCount = openChildrenCount[depth];
+        node.nextNodes = childrenCount == 0 ? NO_CHILDREN : Arrays.copyOf(openChildren[depth], childrenCount);
+        node.countWordsInSubtree = node.isEnd ? 1 : 0;
+        for (TrieNode next : node.nextNodes) {
+            node.countWordsInSubtree += next.countWordsInSubtree;
+        }
+        node.rebuildChildCounts();
+        Arrays.fill(openChildren[depth], 0, childrenCount, null);
+    }
 
-        public void makeNextNode(Character symbol) {
-            nextNodes.put(symbol, new TrieNode());
+    private void checkWritable() {
+        if (isReadOnly) {
+            throw new UnsupportedOperationException("Trie snapshot is read-only");
         }
     }
 
-    private final TrieNode root = new TrieNode();
+    /**
+     * Makes the root modifiable in the current version
+     *
+     * @return root
+     */
+    private TrieNode mutableRoot() {
+        if (root.version != version) {
+            root = root.copy(version);
+        }
+        return root;
+    }
 
     /**
      * If the string is in a trie, method returns its number
@@ -27,21 +329,22 @@ public class TrieImpl implements Trie {
      *
      * @param element
      * @return the number of the passed string among all trie
-     * strings sorted lexicographically
+     * strings sorted lexicographically, starting from zero
      */
     private int getNumberByString(String element) {
         int result = 0;
         TrieNode currentNode = root;
-        for (char symbol : element.toCharArray()) {
-            for (Map.Entry<Character, TrieNode> x : currentNode.nextNodes.entrySet()) {
-                if (x.getKey() < symbol) {
-                    result += x.getValue().countWordsInSubtree;
-                }
+        for (int i = 0; i < element.length(); i++) {
+            if (currentNode.isEnd) {
+                result++;
             }
 
-            if (currentNode.nextNodes.containsKey(symbol)) {
-                currentNode = currentNode.nextNodes.get(symbol);
-            } else {
+            char symbol = element.charAt(i);
+            result += currentNode.countWordsBefore(Alphabet.lettersBefore(symbol));
+
+            int letter = Alphabet.indexOf(symbol);
+            currentNode = letter < 0 ? null : currentNode.getNextNode(letter);
+            if (currentNode == null) {
                 break;
             }
         }
@@ -50,115 +353,365 @@ public class TrieImpl implements Trie {
 
     /**
      * @param pos
-     * @return String at position pos among all trie
-     * strings sorted lexicographically or Optional.empty() if pos greater than trie size
+     * @return String at position pos (starting from zero) among all trie
+     * strings sorted lexicographically or Optional.empty() if pos is not less than trie size
      */
     private Optional<String> findStringByNumber(int pos) {
+        if (pos < 0 || pos >= size()) {
+            return Optional.empty();
+        }
+
         StringBuilder stringBuilder = new StringBuilder();
         TrieNode currentNode = root;
-
-        while (pos > 0) {
+        while (true) {
             if (currentNode.isEnd) {
-                pos--;
-            }
-
-            if (pos == 0) {
-                break;
-            }
-
-            char sym = 'A';
-            for (; sym <= 'z'; sym++) {
-                if (currentNode.nextNodes.containsKey(sym)) {
-                    int wordsInSymSubtree = currentNode.nextNodes.get(sym).countWordsInSubtree;
-                    if (pos > wordsInSymSubtree)
-                        pos -= wordsInSymSubtree;
-                    else
-                        break;
+                if (pos == 0) {
+                    return Optional.of(stringBuilder.toString());
                 }
+                pos--;
             }
 
-            if (sym > 'z')
-                return Optional.empty();
-
-            stringBuilder.append(sym);
-            currentNode = currentNode.nextNodes.get(sym);
+            int slot = currentNode.findChildByNumber(pos);
+            pos -= currentNode.countWordsInSlots(slot);
+            stringBuilder.append(Alphabet.letterAt(currentNode.letterAt(slot)));
+            currentNode = currentNode.nextNodes[slot];
         }
-        return Optional.of(stringBuilder.toString());
     }
 
     /**
-     * Сheck that passed string consists of English letters
+     * The descent on trie along the passed string
      *
-     * @param element
+     * @param path
+     * @return last node on path or null if string is absent in trie
      */
-    private void checkInput(String element) {
-        for (char symbol : element.toLowerCase().toCharArray()) {
-            if (symbol < 'a' || symbol > 'z')
-                throw new IllegalArgumentException("The string must contain only letters of the English alphabet");
+    private TrieNode traverse(String path) {
+        TrieNode currentNode = root;
+        for (int i = 0; i < path.length() && currentNode != null; i++) {
+            int letter = Alphabet.indexOf(path.charAt(i));
+            currentNode = letter < 0 ? null : currentNode.getNextNode(letter);
         }
+        return currentNode;
     }
 
     /**
-     * The descent on trie along the passed string
+     * Takes one word off the counters along the first length chars of element
+     * and detaches the subtree which becomes empty
      *
-     * @param path
-     * @return last node on path or Optional.empty() if string is absent in trie
+     * @param element
+     * @param length
      */
-    private Optional<TrieNode> traverse(String path) {
-        TrieNode currentNode = root;
-
-        for (char symbol : path.toCharArray()) {
-            if (currentNode.nextNodes.get(symbol) == null)
-                return Optional.empty();
-
-            currentNode = currentNode.nextNodes.get(symbol);
+    private void decrementPath(String element, int length) {
+        TrieNode currentNode = mutableRoot();
+        currentNode.countWordsInSubtree--;
+        for (int i = 0; i < length; i++) {
+            int letter = Alphabet.indexOf(element.charAt(i));
+            TrieNode nextNode = currentNode.getMutableNextNode(letter, version);
+            if (--nextNode.countWordsInSubtree == 0) {
+                // the rest of the path holds only this word, so it is a chain of nodes
+                currentNode.removeNextNode(letter);
+                nodeCount -= length - i;
+                return;
+            }
+            currentNode.updateChildCount(letter, -1);
+            currentNode = nextNode;
         }
-        return Optional.of(currentNode);
     }
 
     @Override
     public boolean add(String element) {
-        checkInput(element);
+        checkWritable();
 
-        if (contains(element))
-            return false;
-
-        root.countWordsInSubtree++;
-        TrieNode currentNode = root;
-        for (char symbol : element.toCharArray()) {
-            if (currentNode.nextNodes.get(symbol) == null)
-                currentNode.makeNextNode(symbol);
+        TrieNode currentNode = mutableRoot();
+        currentNode.countWordsInSubtree++;
+        for (int i = 0; i < element.length(); i++) {
+            int letter = Alphabet.indexOf(element.charAt(i));
+            if (letter < 0) {
+                decrementPath(element, i);
+                throw new IllegalArgumentException("The string must contain only letters of the English alphabet");
+            }
 
-            currentNode = currentNode.nextNodes.get(symbol);
+            TrieNode nextNode = currentNode.getMutableNextNode(letter, version);
+            if (nextNode == null) {
+                nextNode = currentNode.makeNextNode(letter);
+                nodeCount++;
+            }
+            currentNode.updateChildCount(letter, 1);
+            currentNode = nextNode;
             currentNode.countWordsInSubtree++;
         }
+
+        if (currentNode.isEnd) {
+            decrementPath(element, element.length());
+            return false;
+        }
         currentNode.isEnd = true;
+        modCount++;
 
         return true;
     }
 
     @Override
     public boolean contains(String element) {
-        Optional<TrieNode> optionalFinishNode = traverse(element);
-        return optionalFinishNode.isPresent() && optionalFinishNode.get().isEnd;
+        TrieNode finishNode = traverse(element);
+        return finishNode != null && finishNode.isEnd;
     }
 
     @Override
     public boolean remove(String element) {
-        if (!contains(element))
-            return false;
+        checkWritable();
 
-        root.countWordsInSubtree--;
+        // the descent is read-only until the word is found, so removing an absent String
+        // does not copy the nodes which are shared with snapshots; the nodes on the path
+        // are recorded, so the counters are updated without descending again
+        TrieNode[] pathNodes = new TrieNode[element.length() + 1];
         TrieNode currentNode = root;
-        for (char symbol : element.toCharArray()) {
-            currentNode = currentNode.nextNodes.get(symbol);
-            currentNode.countWordsInSubtree--;
+        pathNodes[0] = currentNode;
+        for (int i = 0; i < element.length(); i++) {
+            int letter = Alphabet.indexOf(element.charAt(i));
+            currentNode = letter < 0 ? null : currentNode.getNextNode(letter);
+            if (currentNode == null) {
+                return false;
+            }
+            pathNodes[i + 1] = currentNode;
+        }
+        if (!currentNode.isEnd) {
+            return false;
         }
-        currentNode.isEnd = false;
 
+        currentNode = mutableRoot();
+        currentNode.countWordsInSubtree--;
+        modCount++;
+        for (int i = 0; i < element.length(); i++) {
+            int letter = Alphabet.indexOf(element.charAt(i));
+            TrieNode nextNode = pathNodes[i + 1];
+            if (nextNode.countWordsInSubtree == 1) {
+                // the rest of the path holds only this word, so it is a chain of nodes,
+                // which is dropped without copying
+                currentNode.removeNextNode(letter);
+                nodeCount -= element.length() - i;
+                return true;
+            }
+            nextNode = currentNode.makeMutable(letter, nextNode, version);
+            currentNode.updateChildCount(letter, -1);
+            nextNode.countWordsInSubtree--;
+            currentNode = nextNode;
+        }
+        currentNode.isEnd = false;
         return true;
     }
 
+    /**
+     * @return length of the common prefix of the strings
+     */
+    private static int commonPrefixLength(String first, String second) {
+        int maxLength = Math.min(first.length(), second.length());
+        int result = 0;
+        while (result < maxLength && first.charAt(result) == second.charAt(result)) {
+            result++;
+        }
+        return result;
+    }
+
+    /**
+     * Keeps the nodes on the path of the previous String as a finger, so a String
+     * descends only along the part which differs from the previous one.
+     * Expected complexity: O(sum of |element| - |common prefix with the previous element|),
+     * so the batch is the fastest when it is sorted
+     */
+    @Override
+    public boolean[] containsEach(List<String> words) {
+        boolean[] result = new boolean[words.size()];
+        TrieNode[] pathNodes = new TrieNode[16];
+        pathNodes[0] = root;
+        int pathLength = 0;
+        String previous = "";
+
+        int index = 0;
+        for (String element : words) {
+            int depth = Math.min(pathLength, commonPrefixLength(previous, element));
+            if (element.length() >= pathNodes.length) {
+                pathNodes = Arrays.copyOf(pathNodes, Math.max(2 * pathNodes.length, element.length() + 1));
+            }
+            TrieNode currentNode = pathNodes[depth];
+            while (depth < element.length()) {
+                int letter = Alphabet.indexOf(element.charAt(depth));
+                currentNode = letter < 0 ? null : currentNode.getNextNode(letter);
+                if (currentNode == null) {
+                    break;
+                }
+                pathNodes[++depth] = currentNode;
+            }
+
+            pathLength = depth;
+            previous = element;
+            result[index++] = currentNode != null && currentNode.isEnd;
+        }
+        return result;
+    }
+
+    /**
+     * Keeps the nodes on the path of the previous added String as a finger,
+     * so nodes on the common prefix are not looked up again; counts on the
+     * whole path are still updated for every added String.
+     * Expected complexity: O(sum of |element|), the batch is the fastest when it is sorted
+     */
+    @Override
+    public int addAll(Iterable<String> words) {
+        checkWritable();
+
+        int result = 0;
+        TrieNode[] pathNodes = new TrieNode[16];
+        pathNodes[0] = mutableRoot();
+        int pathLength = 0;
+        String previous = "";
+
+        for (String element : words) {
+            Alphabet.checkInput(element);
+            int fingerDepth = Math.min(pathLength, commonPrefixLength(previous, element));
+
+            TrieNode existingNode = pathNodes[fingerDepth];
+            for (int i = fingerDepth; i < element.length() && existingNode != null; i++) {
+                existingNode = existingNode.getNextNode(Alphabet.indexOf(element.charAt(i)));
+            }
+            if (existingNode != null && existingNode.isEnd) {
+                pathLength = fingerDepth;
+                previous = element;
+                continue;
+            }
+
+            if (element.length() >= pathNodes.length) {
+                pathNodes = Arrays.copyOf(pathNodes, Math.max(2 * pathNodes.length, element.length() + 1));
+            }
+            TrieNode currentNode = pathNodes[0];
+            currentNode.countWordsInSubtree++;
+            for (int i = 0; i < element.length(); i++) {
+                int letter = Alphabet.indexOf(element.charAt(i));
+                TrieNode nextNode;
+                if (i < fingerDepth) {
+                    nextNode = pathNodes[i + 1];
+                } else {
+                    nextNode = currentNode.getMutableNextNode(letter, version);
+                    if (nextNode == null) {
+                        nextNode = currentNode.makeNextNode(letter);
+                        nodeCount++;
+                    }
+                    pathNodes[i + 1] = nextNode;
+                }
+                currentNode.updateChildCount(letter, 1);
+                currentNode = nextNode;
+                currentNode.countWordsInSubtree++;
+            }
+            currentNode.isEnd = true;
+            modCount++;
+            result++;
+
+            pathLength = element.length();
+            previous = element;
+        }
+        return result;
+    }
+
+    /**
+     * Rebuilds the trie so that nodes of every subtree are allocated next to each
+     * other, which restores locality of traversals after heavy add/remove churn
+     *
+     * @return number of nodes in the trie
+     */
+    public int compact() {
+        checkWritable();
+
+        root = root.copySubtree(version);
+        nodeCount = root.countNodes();
+        modCount++;
+        return nodeCount;
+    }
+
+    /**
+     * Takes an immutable view of the current trie contents. The snapshot shares all
+     * nodes with this trie; later add and remove copy the nodes on their path
+     * before changing them, so the snapshot is never affected.
+     * Expected complexity: O(1)
+     *
+     * @return read-only trie, whose add, remove and compact throw UnsupportedOperationException
+     */
+    public TrieImpl snapshot() {
+        if (isReadOnly) {
+            return this;
+        }
+        version++;
+        return new TrieImpl(root, nodeCount, true);
+    }
+
+    /**
+     * Expected complexity: O(1)
+     *
+     * @return number of nodes in the trie including the root
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Depth-first walk which gathers the numbers for TrieStats
+     */
+    private static class StatsCollector {
+        /**
+         * Object header, version, childMask, two references, isEnd and countWordsInSubtree, aligned to 8 bytes
+         */
+        private static final int NODE_BYTES = 40;
+        private static final int ARRAY_HEADER_BYTES = 16;
+        private static final int REFERENCE_BYTES = 4;
+
+        private int innerNodeCount = 0;
+        private int[] depthHistogram = new int[16];
+        private int maxDepth = 0;
+        private long estimatedBytes = 0;
+
+        private static long arrayBytes(int length, int elementBytes) {
+            return (ARRAY_HEADER_BYTES + (long) length * elementBytes + 7) & ~7L;
+        }
+
+        private void visit(TrieNode node, int depth) {
+            if (depth == depthHistogram.length) {
+                depthHistogram = Arrays.copyOf(depthHistogram, 2 * depth);
+            }
+            depthHistogram[depth]++;
+            maxDepth = Math.max(maxDepth, depth);
+
+            estimatedBytes += NODE_BYTES;
+            if (node.nextNodes.length > 0) {
+                innerNodeCount++;
+                estimatedBytes += arrayBytes(node.nextNodes.length, REFERENCE_BYTES);
+            }
+            if (node.childCounts != null) {
+                estimatedBytes += arrayBytes(node.childCounts.length, Integer.BYTES);
+            }
+            for (TrieNode next : node.nextNodes) {
+                visit(next, depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Node count and terminal count are kept up to date, the rest is gathered by
+     * a traversal, which is cached until the next modification, so polling an
+     * unchanged trie is O(1). Nodes shared with snapshots are counted in each of them.
+     * Expected complexity: O(1) if the trie was not modified since the previous call,
+     * otherwise O(number of nodes)
+     *
+     * @return stats of the current trie contents
+     */
+    public TrieStats stats() {
+        if (stats == null || statsModCount != modCount) {
+            StatsCollector collector = new StatsCollector();
+            collector.visit(root, 0);
+            stats = new TrieStats(nodeCount, size(), collector.innerNodeCount,
+                    Arrays.copyOf(collector.depthHistogram, collector.maxDepth + 1), collector.estimatedBytes);
+            statsModCount = modCount;
+        }
+        return stats;
+    }
+
     @Override
     public int size() {
         return root.countWordsInSubtree;
@@ -166,17 +719,330 @@ public class TrieImpl implements Trie {
 
     @Override
     public int howManyStartsWithPrefix(String prefix) {
-        Optional<TrieNode> optionalFinishNode = traverse(prefix);
-        return optionalFinishNode.isEmpty() ? 0 : optionalFinishNode.get().countWordsInSubtree;
+        TrieNode finishNode = traverse(prefix);
+        return finishNode == null ? 0 : finishNode.countWordsInSubtree;
+    }
+
+    /**
+     * Depth-first walk which appends words of the subtree to result in lexicographic order
+     *
+     * @param node
+     * @param path string leading to node
+     * @param limit
+     * @param result
+     */
+    private void collectWords(TrieNode node, StringBuilder path, int limit, List<String> result) {
+        if (node.isEnd) {
+            result.add(path.toString());
+        }
+        long mask = node.childMask;
+        for (TrieNode next : node.nextNodes) {
+            if (result.size() >= limit) {
+                return;
+            }
+            path.append(Alphabet.letterAt(Long.numberOfTrailingZeros(mask)));
+            mask &= mask - 1;
+            collectWords(next, path, limit, result);
+            path.setLength(path.length() - 1);
+        }
+    }
+
+    @Override
+    public List<String> completions(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        TrieNode finishNode = traverse(prefix);
+        if (limit > 0 && finishNode != null) {
+            collectWords(finishNode, new StringBuilder(prefix), limit, result);
+        }
+        return result;
+    }
+
+    /**
+     * Depth-first walk which keeps one row of the Levenshtein matrix per depth:
+     * row[j] is the distance between path and the first j chars of query.
+     * A child is skipped when the minimum of its row exceeds maxDistance,
+     * since rows never decrease along a path.
+     *
+     * @param node
+     * @param query
+     * @param maxDistance
+     * @param rows rows for the nodes on path, rows.get(path.length()) is the row of node
+     * @param path string leading to node
+     * @param result
+     */
+    private void collectFuzzyMatches(TrieNode node, String query, int maxDistance,
+                                     List<int[]> rows, StringBuilder path, List<String> result) {
+        int depth = path.length();
+        int[] row = rows.get(depth);
+        if (node.isEnd && row[query.length()] <= maxDistance) {
+            result.add(path.toString());
+        }
+
+        if (rows.size() == depth + 1) {
+            rows.add(new int[query.length() + 1]);
+        }
+        int[] nextRow = rows.get(depth + 1);
+        long mask = node.childMask;
+        for (TrieNode next : node.nextNodes) {
+            char symbol = Alphabet.letterAt(Long.numberOfTrailingZeros(mask));
+            mask &= mask - 1;
+
+            nextRow[0] = row[0] + 1;
+            int minDistance = nextRow[0];
+            for (int j = 1; j <= query.length(); j++) {
+                int replace = row[j - 1] + (symbol == query.charAt(j - 1) ? 0 : 1);
+                nextRow[j] = Math.min(replace, Math.min(row[j], nextRow[j - 1]) + 1);
+                minDistance = Math.min(minDistance, nextRow[j]);
+            }
+            if (minDistance <= maxDistance) {
+                path.append(symbol);
+                collectFuzzyMatches(next, query, maxDistance, rows, path, result);
+                path.setLength(depth);
+            }
+        }
     }
 
     @Override
-    public String nextString(String element, int k) {
-        boolean isContains = contains(element);
-        if (!isContains && k == 0) {
+    public List<String> fuzzyMatches(String query, int maxDistance) {
+        List<String> result = new ArrayList<>();
+        if (maxDistance < 0) {
+            return result;
+        }
+
+        int[] firstRow = new int[query.length() + 1];
+        for (int j = 0; j <= query.length(); j++) {
+            firstRow[j] = j;
+        }
+        List<int[]> rows = new ArrayList<>();
+        rows.add(firstRow);
+        collectFuzzyMatches(root, query, maxDistance, rows, new StringBuilder(), result);
+        return result;
+    }
+
+    /**
+     * Expected complexity: O(|element|)
+     */
+    @Override
+    public int rank(String element) {
+        return getNumberByString(element);
+    }
+
+    /**
+     * Expected complexity: O(|trie depth|)
+     */
+    @Override
+    public String select(int index) {
+        return findStringByNumber(index).orElse(null);
+    }
+
+    /**
+     * Expected complexity: O(|from| + |to|)
+     */
+    @Override
+    public int countInRange(String from, String to) {
+        return Math.max(0, getNumberByString(to) - getNumberByString(from));
+    }
+
+    /**
+     * Expected complexity: O(|from| + |to|) to start and the same as iterator() per String
+     */
+    @Override
+    public Iterator<String> rangeIterator(String from, String to) {
+        int fromNumber = getNumberByString(from);
+        return new TrieIterator(fromNumber, Math.max(fromNumber, getNumberByString(to)));
+    }
+
+    /**
+     * Iterator over the strings with positions from..to-1 in lexicographic order.
+     * The path to the current node is kept in an explicit stack and the current
+     * string in a reused char buffer, so only the returned strings are allocated.
+     */
+    private class TrieIterator implements Iterator<String> {
+        private final int expectedModCount = modCount;
+        private TrieNode[] nodes = new TrieNode[16];
+        private long[] notVisitedChildren = new long[16];
+        private int[] nextSlots = new int[16];
+        private char[] path = new char[16];
+        private int depth = 0;
+        private boolean isNodeVisited = false;
+
+        private int remaining;
+
+        private TrieIterator(int from, int to) {
+            remaining = to - from;
+            if (remaining > 0) {
+                seek(from);
+            }
+        }
+
+        /**
+         * Builds the stack so that the string at position pos is returned next
+         *
+         * @param pos
+         */
+        private void seek(int pos) {
+            TrieNode currentNode = root;
+            nodes[0] = currentNode;
+            while (true) {
+                if (currentNode.isEnd) {
+                    if (pos == 0) {
+                        nextSlots[depth] = 0;
+                        notVisitedChildren[depth] = currentNode.childMask;
+                        return;
+                    }
+                    pos--;
+                }
+
+                int slot = currentNode.findChildByNumber(pos);
+                pos -= currentNode.countWordsInSlots(slot);
+                long mask = currentNode.childMask;
+                for (int i = 0; i < slot; i++) {
+                    mask &= mask - 1;
+                }
+                nextSlots[depth] = slot;
+                notVisitedChildren[depth] = mask;
+                push();
+                currentNode = nodes[depth];
+            }
+        }
+
+        /**
+         * Goes down to the next not visited child of the top node
+         */
+        private void push() {
+            if (depth + 1 == nodes.length) {
+                int capacity = 2 * nodes.length;
+                nodes = Arrays.copyOf(nodes, capacity);
+                notVisitedChildren = Arrays.copyOf(notVisitedChildren, capacity);
+                nextSlots = Arrays.copyOf(nextSlots, capacity);
+                path = Arrays.copyOf(path, capacity);
+            }
+            long mask = notVisitedChildren[depth];
+            path[depth] = Alphabet.letterAt(Long.numberOfTrailingZeros(mask));
+            notVisitedChildren[depth] = mask & (mask - 1);
+            TrieNode next = nodes[depth].nextNodes[nextSlots[depth]++];
+
+            depth++;
+            nodes[depth] = next;
+            notVisitedChildren[depth] = next.childMask;
+            nextSlots[depth] = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public String next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+
+            while (true) {
+                if (!isNodeVisited) {
+                    isNodeVisited = true;
+                    if (nodes[depth].isEnd) {
+                        remaining--;
+                        return new String(path, 0, depth);
+                    }
+                }
+
+                if (notVisitedChildren[depth] != 0) {
+                    push();
+                    isNodeVisited = false;
+                } else {
+                    depth--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Spliterator over the strings with positions from..to-1. Subtree counts give
+     * exact sizes of both halves, so it splits a range in the middle by position.
+     */
+    private class TrieSpliterator implements Spliterator<String> {
+        private int from;
+        private final int to;
+        private TrieIterator iterator;
+
+        private TrieSpliterator(int from, int to, TrieIterator iterator) {
+            this.from = from;
+            this.to = to;
+            this.iterator = iterator;
+        }
+
+        private TrieIterator iterator() {
+            if (iterator == null) {
+                iterator = new TrieIterator(from, to);
+            }
+            return iterator;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            if (!iterator().hasNext()) {
+                return false;
+            }
+            action.accept(iterator.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super String> action) {
+            iterator().forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            int current = iterator == null ? from : to - iterator.remaining;
+            int middle = (current + to) >>> 1;
+            if (middle == current) {
+                return null;
+            }
+
+            TrieSpliterator prefix = new TrieSpliterator(current, middle, iterator);
+            if (iterator != null) {
+                iterator.remaining = middle - current;
+            }
+            from = middle;
+            iterator = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return iterator == null ? to - from : iterator.remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SORTED | NONNULL | SIZED | SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super String> getComparator() {
             return null;
         }
-        Optional<String> optionalS = findStringByNumber(getNumberByString(element) + k + (isContains ? 1 : 0));
-        return optionalS.isEmpty() ? null : optionalS.get();
+    }
+
+    /**
+     * Iterates over Strings in trie in lexicographic order
+     * Expected complexity: O(1) amortized per String plus its length
+     * Modification of the trie makes the iterator throw ConcurrentModificationException,
+     * iterate over snapshot() to read a trie which is being changed
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new TrieIterator(0, size());
+    }
+
+    @Override
+    public Spliterator<String> spliterator() {
+        return new TrieSpliterator(0, size(), null);
     }
 }
\ No newline at end of file
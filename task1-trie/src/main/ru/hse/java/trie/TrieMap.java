@@ -0,0 +1,100 @@
+package ru.hse.java.trie;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * Trie where every string is a key with a value, which is kept in its terminal node.
+ * put and merge descend once, see {@link AbstractTrieMap}.
+ * Values may be null, add puts a key with null value.
+ * Interface : add, remove, contains, howManyStartsWithPrefix, nextString, get, put, merge.
+ *
+ * @param <V> type of values
+ */
+public class TrieMap<V> extends AbstractTrieMap<TrieMap.TrieNode> {
+
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+    static class TrieNode extends BitmapNode<TrieNode> {
+        private Object value = null;
+
+        private TrieNode() {
+            super(NO_CHILDREN);
+        }
+
+        @Override
+        TrieNode newNode() {
+            return new TrieNode();
+        }
+    }
+
+    public TrieMap() {
+        super(new TrieNode(), new TrieNode[16]);
+    }
+
+    @Override
+    void clearValue(TrieNode node) {
+        node.value = null;
+    }
+
+    /**
+     * Expected complexity: O(|key|)
+     * @return value of key or null if it is absent in trie
+     */
+    @SuppressWarnings("unchecked")
+    public V get(String key) {
+        TrieNode finishNode = traverse(key);
+        return finishNode != null && finishNode.isEnd ? (V) finishNode.value : null;
+    }
+
+    /**
+     * Adds key or replaces its value
+     * Expected complexity: O(|key|)
+     * @return previous value of key or null if it was absent in trie
+     */
+    @SuppressWarnings("unchecked")
+    public V put(String key, V value) {
+        Alphabet.checkInput(key);
+        TrieNode finishNode = descend(key, true);
+        V previousValue = null;
+        if (finishNode.isEnd) {
+            previousValue = (V) finishNode.value;
+        } else {
+            addWord(key);
+        }
+        finishNode.value = value;
+        releasePath(key);
+        return previousValue;
+    }
+
+    /**
+     * The same as {@link java.util.Map#merge}: puts value if key is absent or has null value,
+     * otherwise replaces the value with the result of remapping or removes key if the result is null
+     * Expected complexity: O(|key|) plus remapping
+     * @return new value of key or null if it was removed
+     */
+    @SuppressWarnings("unchecked")
+    public V merge(String key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remapping);
+        Alphabet.checkInput(key);
+
+        TrieNode finishNode = descend(key, true);
+        V newValue = value;
+        if (!finishNode.isEnd) {
+            addWord(key);
+            finishNode.value = value;
+        } else {
+            if (finishNode.value != null) {
+                newValue = remapping.apply((V) finishNode.value, value);
+            }
+            if (newValue == null) {
+                removeWord(key);
+            } else {
+                finishNode.value = newValue;
+            }
+        }
+        releasePath(key);
+        return newValue;
+    }
+}
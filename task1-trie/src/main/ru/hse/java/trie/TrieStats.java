@@ -0,0 +1,67 @@
+package ru.hse.java.trie;
+
+import java.util.Arrays;
+
+/**
+ * Immutable summary of the shape and the size of a trie, see {@link TrieImpl#stats()}
+ */
+public final class TrieStats {
+
+    private final int nodeCount;
+    private final int terminalCount;
+    private final int innerNodeCount;
+    private final int[] depthHistogram;
+    private final long estimatedBytes;
+
+    TrieStats(int nodeCount, int terminalCount, int innerNodeCount, int[] depthHistogram, long estimatedBytes) {
+        this.nodeCount = nodeCount;
+        this.terminalCount = terminalCount;
+        this.innerNodeCount = innerNodeCount;
+        this.depthHistogram = depthHistogram;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    /**
+     * @return number of nodes including the root
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return number of nodes where a string ends, which is the size of the trie
+     */
+    public int terminalCount() {
+        return terminalCount;
+    }
+
+    /**
+     * @return average number of children of nodes which have children, or zero if there are no such nodes
+     */
+    public double averageFanOut() {
+        return innerNodeCount == 0 ? 0 : (double) (nodeCount - 1) / innerNodeCount;
+    }
+
+    /**
+     * @return array where i-th value is the number of nodes at depth i, its length is the maximal depth plus one
+     */
+    public int[] depthHistogram() {
+        return depthHistogram.clone();
+    }
+
+    /**
+     * @return estimated size in bytes of the nodes and their arrays on a 64-bit JVM with compressed references
+     */
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "TrieStats{nodeCount=" + nodeCount
+                + ", terminalCount=" + terminalCount
+                + ", averageFanOut=" + averageFanOut()
+                + ", depthHistogram=" + Arrays.toString(depthHistogram)
+                + ", estimatedBytes=" + estimatedBytes + '}';
+    }
+}
@@ -0,0 +1,348 @@
+package ru.hse.java.trie;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Trie over any Unicode strings, which are stored as their UTF-8 bytes.
+ * Nodes adapt to their fan-out: a node with few children keeps sorted arrays of
+ * keys and children, which grow up to MAX_SORTED_CHILDREN, and a node with more
+ * children switches to a dense array indexed by byte. The order of UTF-8 bytes
+ * is the order of code points, so strings are ordered by code points, which
+ * differs from {@link String#compareTo} only for chars above U+FFFF.
+ * Interface : add, remove, contains, howManyStartsWithPrefix, nextString.
+ */
+public class UnicodeTrie implements Trie {
+
+    private static final int BYTE_VALUES = 256;
+    private static final int MIN_SORTED_CAPACITY = 4;
+    private static final int MAX_SORTED_CHILDREN = 16;
+    private static final int MIN_DENSE_CHILDREN = 8;
+
+    private static final byte[] NO_KEYS = new byte[0];
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+    private static class TrieNode {
+        /**
+         * Sorted keys of children, or null if the node is dense
+         */
+        private byte[] keys = NO_KEYS;
+        private TrieNode[] nextNodes = NO_CHILDREN;
+        private int childrenCount = 0;
+        private boolean isEnd = false;
+
+        private int countWordsInSubtree = 0;
+
+        private boolean isDense() {
+            return keys == null;
+        }
+
+        /**
+         * @param key
+         * @return how many children of the sorted node have keys less than passed one
+         */
+        private int slot(int key) {
+            int low = 0;
+            int high = childrenCount;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if ((keys[middle] & 0xFF) < key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private TrieNode getNextNode(int key) {
+            if (isDense()) {
+                return nextNodes[key];
+            }
+            int slot = slot(key);
+            return slot < childrenCount && (keys[slot] & 0xFF) == key ? nextNodes[slot] : null;
+        }
+
+        /**
+         * @param key
+         * @return the smallest key of a child which is not less than passed one or -1
+         */
+        private int nextKey(int key) {
+            if (isDense()) {
+                for (; key < BYTE_VALUES; key++) {
+                    if (nextNodes[key] != null) {
+                        return key;
+                    }
+                }
+                return -1;
+            }
+            int slot = slot(key);
+            return slot < childrenCount ? keys[slot] & 0xFF : -1;
+        }
+
+        /**
+         * @param key
+         * @return the number of words in children with keys less than passed one
+         */
+        private int countWordsBefore(int key) {
+            int result = 0;
+            if (isDense()) {
+                for (int i = 0; i < key; i++) {
+                    if (nextNodes[i] != null) {
+                        result += nextNodes[i].countWordsInSubtree;
+                    }
+                }
+            } else {
+                for (int i = slot(key) - 1; i >= 0; i--) {
+                    result += nextNodes[i].countWordsInSubtree;
+                }
+            }
+            return result;
+        }
+
+        private TrieNode makeNextNode(int key) {
+            TrieNode node = new TrieNode();
+            if (!isDense() && childrenCount == MAX_SORTED_CHILDREN) {
+                TrieNode[] denseNodes = new TrieNode[BYTE_VALUES];
+                for (int i = 0; i < childrenCount; i++) {
+                    denseNodes[keys[i] & 0xFF] = nextNodes[i];
+                }
+                keys = null;
+                nextNodes = denseNodes;
+            }
+
+            if (isDense()) {
+                nextNodes[key] = node;
+            } else {
+                if (childrenCount == keys.length) {
+                    int capacity = Math.max(MIN_SORTED_CAPACITY, 2 * childrenCount);
+                    keys = Arrays.copyOf(keys, capacity);
+                    nextNodes = Arrays.copyOf(nextNodes, capacity);
+                }
+                int slot = slot(key);
+                System.arraycopy(keys, slot, keys, slot + 1, childrenCount - slot);
+                System.arraycopy(nextNodes, slot, nextNodes, slot + 1, childrenCount - slot);
+                keys[slot] = (byte) key;
+                nextNodes[slot] = node;
+            }
+            childrenCount++;
+            return node;
+        }
+
+        private void removeNextNode(int key) {
+            childrenCount--;
+            if (!isDense()) {
+                int slot = slot(key);
+                System.arraycopy(keys, slot + 1, keys, slot, childrenCount - slot);
+                System.arraycopy(nextNodes, slot + 1, nextNodes, slot, childrenCount - slot);
+                nextNodes[childrenCount] = null;
+                return;
+            }
+
+            nextNodes[key] = null;
+            if (childrenCount == MIN_DENSE_CHILDREN) {
+                byte[] sortedKeys = new byte[MAX_SORTED_CHILDREN];
+                TrieNode[] sortedNodes = new TrieNode[MAX_SORTED_CHILDREN];
+                int slot = 0;
+                for (int i = 0; i < BYTE_VALUES; i++) {
+                    if (nextNodes[i] != null) {
+                        sortedKeys[slot] = (byte) i;
+                        sortedNodes[slot++] = nextNodes[i];
+                    }
+                }
+                keys = sortedKeys;
+                nextNodes = sortedNodes;
+            }
+        }
+    }
+
+    private final TrieNode root = new TrieNode();
+
+    /**
+     * @param element
+     * @return false if element contains a surrogate char without its pair
+     */
+    private static boolean isWellFormed(String element) {
+        for (int i = 0; i < element.length(); i++) {
+            char symbol = element.charAt(i);
+            if (Character.isHighSurrogate(symbol) && i + 1 < element.length()
+                    && Character.isLowSurrogate(element.charAt(i + 1))) {
+                i++;
+            } else if (Character.isSurrogate(symbol)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param element
+     * @return UTF-8 bytes of element
+     * @throws IllegalArgumentException if element contains a surrogate char without its pair
+     */
+    private static byte[] encode(String element) {
+        if (!isWellFormed(element)) {
+            throw new IllegalArgumentException("The string must not contain unpaired surrogates");
+        }
+        return element.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The descent on trie along the passed bytes
+     *
+     * @param path
+     * @return last node on path or null if string is absent in trie
+     */
+    private TrieNode traverse(byte[] path) {
+        TrieNode currentNode = root;
+        for (int i = 0; i < path.length && currentNode != null; i++) {
+            currentNode = currentNode.getNextNode(path[i] & 0xFF);
+        }
+        return currentNode;
+    }
+
+    /**
+     * @param element
+     * @return the number of trie strings which are less than passed one
+     */
+    private int getNumberByString(byte[] element) {
+        int result = 0;
+        TrieNode currentNode = root;
+        for (int i = 0; i < element.length; i++) {
+            if (currentNode.isEnd) {
+                result++;
+            }
+
+            int key = element[i] & 0xFF;
+            result += currentNode.countWordsBefore(key);
+            currentNode = currentNode.getNextNode(key);
+            if (currentNode == null) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Strings are ordered by code points
+     *
+     * @throws IllegalArgumentException if element contains a surrogate char without its pair
+     */
+    @Override
+    public int rank(String element) {
+        return getNumberByString(encode(element));
+    }
+
+    /**
+     * @param pos
+     * @return String at position pos (starting from zero) among all trie
+     * strings sorted by code points or null if pos is not less than trie size
+     */
+    @Override
+    public String select(int pos) {
+        if (pos < 0 || pos >= size()) {
+            return null;
+        }
+
+        byte[] path = new byte[16];
+        int length = 0;
+        TrieNode currentNode = root;
+        while (true) {
+            if (currentNode.isEnd) {
+                if (pos == 0) {
+                    return new String(path, 0, length, StandardCharsets.UTF_8);
+                }
+                pos--;
+            }
+
+            for (int key = currentNode.nextKey(0); key >= 0; key = currentNode.nextKey(key + 1)) {
+                TrieNode next = currentNode.getNextNode(key);
+                if (pos < next.countWordsInSubtree) {
+                    if (length == path.length) {
+                        path = Arrays.copyOf(path, 2 * length);
+                    }
+                    path[length++] = (byte) key;
+                    currentNode = next;
+                    break;
+                }
+                pos -= next.countWordsInSubtree;
+            }
+        }
+    }
+
+    @Override
+    public boolean add(String element) {
+        byte[] bytes = encode(element);
+
+        if (contains(element))
+            return false;
+
+        root.countWordsInSubtree++;
+        TrieNode currentNode = root;
+        for (byte symbol : bytes) {
+            int key = symbol & 0xFF;
+            TrieNode nextNode = currentNode.getNextNode(key);
+            currentNode = nextNode == null ? currentNode.makeNextNode(key) : nextNode;
+            currentNode.countWordsInSubtree++;
+        }
+        currentNode.isEnd = true;
+
+        return true;
+    }
+
+    @Override
+    public boolean contains(String element) {
+        if (!isWellFormed(element)) {
+            return false;
+        }
+        TrieNode finishNode = traverse(element.getBytes(StandardCharsets.UTF_8));
+        return finishNode != null && finishNode.isEnd;
+    }
+
+    @Override
+    public boolean remove(String element) {
+        if (!contains(element))
+            return false;
+
+        root.countWordsInSubtree--;
+        TrieNode currentNode = root;
+        for (byte symbol : element.getBytes(StandardCharsets.UTF_8)) {
+            int key = symbol & 0xFF;
+            TrieNode nextNode = currentNode.getNextNode(key);
+            if (--nextNode.countWordsInSubtree == 0) {
+                currentNode.removeNextNode(key);
+                return true;
+            }
+            currentNode = nextNode;
+        }
+        currentNode.isEnd = false;
+
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return root.countWordsInSubtree;
+    }
+
+    @Override
+    public int howManyStartsWithPrefix(String prefix) {
+        if (!isWellFormed(prefix)) {
+            return 0;
+        }
+        TrieNode finishNode = traverse(prefix.getBytes(StandardCharsets.UTF_8));
+        return finishNode == null ? 0 : finishNode.countWordsInSubtree;
+    }
+
+    /**
+     * Strings are ordered by code points, not by {@link String#compareTo},
+     * so the spliterator is not reported as SORTED
+     */
+    @Override
+    public Spliterator<String> spliterator() {
+        return Spliterators.spliterator(iterator(), size(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+}
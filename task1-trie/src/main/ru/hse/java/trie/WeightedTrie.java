@@ -0,0 +1,193 @@
+package ru.hse.java.trie;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Trie where every string has a score.
+ * Each node keeps the maximal score in its subtree, so the best completions of a prefix
+ * are found by a best-first search which skips subtrees that cannot beat the found ones.
+ * Interface : add, remove, contains, howManyStartsWithPrefix, nextString, topCompletions.
+ */
+public class WeightedTrie extends BitmapTrie<WeightedTrie.TrieNode> {
+
+    private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+    static class TrieNode extends BitmapNode<TrieNode> {
+        private long score = 0;
+
+        private long maxScoreInSubtree = Long.MIN_VALUE;
+
+        private TrieNode() {
+            super(NO_CHILDREN);
+        }
+
+        @Override
+        TrieNode newNode() {
+            return new TrieNode();
+        }
+
+        private void updateMaxScore() {
+            maxScoreInSubtree = isEnd ? score : Long.MIN_VALUE;
+            for (TrieNode next : nextNodes) {
+                maxScoreInSubtree = Math.max(maxScoreInSubtree, next.maxScoreInSubtree);
+            }
+        }
+    }
+
+    /**
+     * Entry of the best-first search: either a found string or a subtree to explore
+     */
+    private static class Candidate {
+        private final TrieNode node;
+        private final String path;
+        private final long score;
+        private final boolean isWord;
+
+        private Candidate(TrieNode node, String path, long score, boolean isWord) {
+            this.node = node;
+            this.path = path;
+            this.score = score;
+            this.isWord = isWord;
+        }
+    }
+
+    /**
+     * Higher scores first, equal scores in lexicographic order. A subtree never goes
+     * after a string inside it, so strings leave the queue already in the final order.
+     */
+    private static final Comparator<Candidate> CANDIDATE_ORDER = Comparator
+            .comparingLong((Candidate candidate) -> candidate.score).reversed()
+            .thenComparing(candidate -> candidate.path)
+            .thenComparing(candidate -> !candidate.isWord);
+
+    public WeightedTrie() {
+        super(new TrieNode());
+    }
+
+    /**
+     * @param isRescoring whether the score of element is replaced if it is already in trie
+     * @return <tt>true</tt> if element was added rather than found
+     */
+    private boolean insert(TrieNode node, String element, int depth, long score, boolean isRescoring) {
+        boolean isAdded;
+        if (depth == element.length()) {
+            isAdded = !node.isEnd;
+            if (isAdded || isRescoring) {
+                node.score = score;
+            }
+            node.isEnd = true;
+        } else {
+            int letter = Alphabet.indexOf(element.charAt(depth));
+            TrieNode nextNode = node.getNextNode(letter);
+            if (nextNode == null) {
+                nextNode = node.makeNextNode(letter);
+            }
+            isAdded = insert(nextNode, element, depth + 1, score, isRescoring);
+        }
+
+        if (isAdded) {
+            node.countWordsInSubtree++;
+        }
+        node.updateMaxScore();
+        return isAdded;
+    }
+
+    /**
+     * Expects element to be in the subtree of node
+     */
+    private void delete(TrieNode node, String element, int depth) {
+        node.countWordsInSubtree--;
+        if (depth == element.length()) {
+            node.isEnd = false;
+        } else {
+            int letter = Alphabet.indexOf(element.charAt(depth));
+            TrieNode nextNode = node.getNextNode(letter);
+            if (nextNode.countWordsInSubtree == 1) {
+                node.removeNextNode(letter);
+            } else {
+                delete(nextNode, element, depth + 1);
+            }
+        }
+        node.updateMaxScore();
+    }
+
+    /**
+     * Adds element with zero score, the score of an existing element is kept
+     * Expected complexity: O(|element| * |alphabet|)
+     */
+    @Override
+    public boolean add(String element) {
+        Alphabet.checkInput(element);
+        return insert(root, element, 0, 0, false);
+    }
+
+    /**
+     * Adds element or changes its score
+     * Expected complexity: O(|element| * |alphabet|)
+     * @return <tt>true</tt> if this set did not already contain the specified
+     *         element
+     */
+    public boolean add(String element, long score) {
+        Alphabet.checkInput(element);
+        return insert(root, element, 0, score, true);
+    }
+
+    /**
+     * @return score of element or null if it is absent in trie
+     */
+    public Long getScore(String element) {
+        TrieNode finishNode = traverse(element);
+        return finishNode != null && finishNode.isEnd ? finishNode.score : null;
+    }
+
+    /**
+     * Expected complexity: O(|element| * |alphabet|)
+     */
+    @Override
+    public boolean remove(String element) {
+        if (!contains(element))
+            return false;
+
+        delete(root, element, 0);
+        return true;
+    }
+
+    /**
+     * Get Strings in trie, which start with [prefix], with the highest scores;
+     * Strings with equal scores go in lexicographic order
+     * Expected complexity: O(|prefix| + limit * |trie depth| * |alphabet| * log(queue size))
+     * @return at most limit found Strings, the best first
+     */
+    public List<String> topCompletions(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        TrieNode finishNode = traverse(prefix);
+        if (limit <= 0 || finishNode == null || finishNode.countWordsInSubtree == 0) {
+            return result;
+        }
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(CANDIDATE_ORDER);
+        queue.add(new Candidate(finishNode, prefix, finishNode.maxScoreInSubtree, false));
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.isWord) {
+                result.add(candidate.path);
+                continue;
+            }
+
+            TrieNode node = candidate.node;
+            if (node.isEnd) {
+                queue.add(new Candidate(node, candidate.path, node.score, true));
+            }
+            long mask = node.childMask;
+            for (TrieNode next : node.nextNodes) {
+                char symbol = Alphabet.letterAt(Long.numberOfTrailingZeros(mask));
+                mask &= mask - 1;
+                queue.add(new Candidate(next, candidate.path + symbol, next.maxScoreInSubtree, false));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.hse.java.trie;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+public class ArrayTrieTest {
+
+    private ArrayTrie trie;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        trie = new ArrayTrie();
+    }
+
+    @Test
+    public void testAddAndContains() {
+        assertTrue(trie.add("AbAca"));
+        assertTrue(trie.add("zZ"));
+        assertTrue(trie.add(""));
+        assertFalse(trie.add("zZ"));
+        assertEquals(trie.size(), 3);
+        assertTrue(trie.contains("AbAca"));
+        assertTrue(trie.contains(""));
+        assertFalse(trie.contains("AbAc"));
+        assertFalse(trie.contains("z"));
+    }
+
+    @Test
+    public void testIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> trie.add("a_b"));
+        assertEquals(trie.size(), 0);
+        assertFalse(trie.contains("a_b"));
+    }
+
+    @Test
+    public void testRemoveKeepsOtherWords() {
+        assertTrue(trie.add("abc"));
+        assertTrue(trie.add("ab"));
+        assertTrue(trie.add("abd"));
+        assertTrue(trie.remove("abc"));
+        assertFalse(trie.remove("abc"));
+        assertTrue(trie.contains("ab"));
+        assertTrue(trie.contains("abd"));
+        assertTrue(trie.remove("ab"));
+        assertTrue(trie.contains("abd"));
+        assertEquals(trie.howManyStartsWithPrefix("ab"), 1);
+        assertEquals(trie.size(), 1);
+    }
+
+    @Test
+    public void testAddAfterRemove() {
+        assertTrue(trie.add("abc"));
+        assertTrue(trie.remove("abc"));
+        assertTrue(trie.add("abc"));
+        assertTrue(trie.contains("abc"));
+        assertEquals(trie.howManyStartsWithPrefix("a"), 1);
+    }
+
+    @Test
+    public void testHowManyStartsWithPrefix() {
+        assertTrue(trie.add("aaaaa"));
+        assertTrue(trie.add("aaabcde"));
+        assertTrue(trie.add("aa"));
+        assertTrue(trie.add("Aa"));
+        assertEquals(trie.howManyStartsWithPrefix(""), 4);
+        assertEquals(trie.howManyStartsWithPrefix("a"), 3);
+        assertEquals(trie.howManyStartsWithPrefix("aaa"), 2);
+        assertEquals(trie.howManyStartsWithPrefix("A"), 1);
+        assertEquals(trie.howManyStartsWithPrefix("b"), 0);
+    }
+
+    @Test
+    public void testNextStringWithPrefixWords() {
+        assertTrue(trie.add(""));
+        assertTrue(trie.add("a"));
+        assertTrue(trie.add("ab"));
+        assertTrue(trie.add("B"));
+        assertEquals(trie.nextString("", 0), "");
+        assertEquals(trie.nextString("", 1), "B");
+        assertEquals(trie.nextString("a", 1), "ab");
+        assertNull(trie.nextString("ab", 1));
+        assertEquals(trie.nextString("aa", 1), "ab");
+        assertNull(trie.nextString("aa", 0));
+    }
+
+    @Test
+    public void testCompletions() {
+        assertTrue(trie.add("car"));
+        assertTrue(trie.add("cart"));
+        assertTrue(trie.add("care"));
+        assertTrue(trie.add("cb"));
+        assertEquals(trie.completions("car", 10), List.of("car", "care", "cart"));
+        assertEquals(trie.completions("ca", 2), List.of("car", "care"));
+        assertEquals(trie.completions("cc", 2), List.of());
+    }
+
+    @Test
+    public void testIterator() {
+        assertTrue(trie.add("b"));
+        assertTrue(trie.add(""));
+        assertTrue(trie.add("ab"));
+        assertTrue(trie.add("a"));
+        assertIterableEquals(trie, List.of("", "a", "ab", "b"));
+        assertEquals(trie.spliterator().getExactSizeIfKnown(), 4);
+    }
+
+    @Test
+    public void testStressAgainstTreeSet() {
+        TrieStressTests.testStressAgainstTreeSet(ArrayTrie::new);
+    }
+
+    @Test
+    public void testStressNextString() {
+        TrieStressTests.testStressNextString(ArrayTrie::new);
+    }
+}
@@ -0,0 +1,149 @@
+package ru.hse.java.trie;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentTrieTest {
+
+    private ConcurrentTrie trie;
+    private StressTreeSetWrapper stressTree;
+    private String[] buffer;
+
+    private static final int STRING_LENGTH = 6;
+    private static final int STRESS_TEST_SIZE = 20_000;
+    private static final int THREADS = 8;
+    private static final int[] LETTERS = "ABCDEFabcdef".codePoints().toArray();
+
+    private void runInThreads(ThreadBody body) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int threadNumber = i;
+            Thread thread = new Thread(() -> body.run(threadNumber));
+            thread.setUncaughtExceptionHandler((t, e) -> {
+                synchronized (errors) {
+                    errors.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.isEmpty(), errors.toString());
+    }
+
+    private interface ThreadBody {
+        void run(int threadNumber);
+    }
+
+    @BeforeEach
+    public void beforeEachTest() {
+        trie = new ConcurrentTrie();
+        stressTree = new StressTreeSetWrapper();
+        buffer = TrieStressTests.generateRandomStrings(STRESS_TEST_SIZE, STRING_LENGTH, LETTERS);
+    }
+
+    @Test
+    public void testSingleThread() {
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            assertEquals(trie.add(buffer[i]), stressTree.add(buffer[i]));
+        }
+        for (int i = 0; i < STRESS_TEST_SIZE; i += 2) {
+            assertEquals(trie.remove(buffer[i]), stressTree.remove(buffer[i]));
+        }
+        TrieStressTests.assertSameAsTreeSet(trie, stressTree, buffer);
+    }
+
+    @Test
+    public void testIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> trie.add("a b"));
+        assertEquals(trie.size(), 0);
+    }
+
+    @Test
+    public void testConcurrentAddOfSameWords() throws InterruptedException {
+        AtomicInteger added = new AtomicInteger();
+        runInThreads(threadNumber -> {
+            for (String element : buffer) {
+                if (trie.add(element)) {
+                    added.incrementAndGet();
+                }
+            }
+        });
+
+        for (String element : buffer) {
+            stressTree.add(element);
+        }
+        assertEquals(added.get(), stressTree.size());
+        TrieStressTests.assertSameAsTreeSet(trie, stressTree, buffer);
+    }
+
+    @Test
+    public void testConcurrentAddAndRemove() throws InterruptedException {
+        String[] words = Arrays.stream(buffer).distinct().toArray(String[]::new);
+        runInThreads(threadNumber -> {
+            for (int i = threadNumber; i < words.length; i += THREADS) {
+                assertTrue(trie.add(words[i]));
+            }
+            for (int i = threadNumber; i < words.length; i += 2 * THREADS) {
+                assertTrue(trie.remove(words[i]));
+            }
+        });
+
+        for (int i = 0; i < words.length; i++) {
+            if (i % (2 * THREADS) >= THREADS) {
+                stressTree.add(words[i]);
+            }
+        }
+        TrieStressTests.assertSameAsTreeSet(trie, stressTree, buffer);
+    }
+
+    @Test
+    public void testReadersDuringWrites() throws InterruptedException {
+        String[] words = Arrays.stream(buffer).distinct().toArray(String[]::new);
+        for (int i = 0; i < words.length; i += 2) {
+            trie.add(words[i]);
+        }
+        AtomicBoolean writersDone = new AtomicBoolean(false);
+        Thread reader = new Thread(() -> {
+            Random random = new Random();
+            while (!writersDone.get()) {
+                String element = words[random.nextInt(words.length)];
+                trie.contains(element);
+                trie.howManyStartsWithPrefix(element);
+                trie.nextString(element, random.nextInt(10));
+            }
+        });
+        AtomicReference<Throwable> readerError = new AtomicReference<>();
+        reader.setUncaughtExceptionHandler((t, e) -> readerError.set(e));
+        reader.start();
+        runInThreads(threadNumber -> {
+            for (int i = threadNumber; i < words.length; i += THREADS) {
+                if (i % 2 == 0) {
+                    assertTrue(trie.remove(words[i]));
+                } else {
+                    assertTrue(trie.add(words[i]));
+                }
+            }
+        });
+        writersDone.set(true);
+        reader.join();
+        assertNull(readerError.get());
+
+        assertEquals(trie.size(), words.length / 2);
+        for (int i = 0; i < words.length; i++) {
+            assertEquals(trie.contains(words[i]), i % 2 == 1);
+        }
+    }
+}
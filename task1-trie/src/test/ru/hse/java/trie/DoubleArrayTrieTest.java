@@ -0,0 +1,58 @@
+package ru.hse.java.trie;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+
+public class DoubleArrayTrieTest {
+
+    @Test
+    public void testFromSorted() {
+        DoubleArrayTrie trie = DoubleArrayTrie.fromSorted(List.of("", "B", "a", "ab", "abc", "b", "z"));
+        assertEquals(trie.size(), 7);
+        assertTrue(trie.contains(""));
+        assertTrue(trie.contains("abc"));
+        assertTrue(trie.contains("z"));
+        assertFalse(trie.contains("A"));
+        assertFalse(trie.contains("abcd"));
+        assertFalse(trie.contains("a_"));
+        assertEquals(trie.howManyStartsWithPrefix("a"), 3);
+        assertEquals(trie.howManyStartsWithPrefix("c"), 0);
+        assertEquals(trie.nextString("B", 1), "a");
+        assertEquals(trie.nextString("aa", 1), "ab");
+        assertNull(trie.nextString("z", 1));
+        assertIterableEquals(trie, List.of("", "B", "a", "ab", "abc", "b", "z"));
+    }
+
+    @Test
+    public void testEmpty() {
+        DoubleArrayTrie trie = DoubleArrayTrie.fromSorted(List.of());
+        assertEquals(trie.size(), 0);
+        assertFalse(trie.contains(""));
+        assertFalse(trie.contains("a"));
+        assertEquals(trie.howManyStartsWithPrefix(""), 0);
+        assertNull(trie.nextString("", 1));
+    }
+
+    @Test
+    public void testReadOnly() {
+        DoubleArrayTrie trie = DoubleArrayTrie.fromSorted(List.of("a"));
+        assertThrows(UnsupportedOperationException.class, () -> trie.add("b"));
+        assertThrows(UnsupportedOperationException.class, () -> trie.remove("a"));
+    }
+
+    @Test
+    public void testIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> DoubleArrayTrie.fromSorted(List.of("b", "a")));
+        assertThrows(IllegalArgumentException.class, () -> DoubleArrayTrie.fromSorted(List.of("a", "a")));
+        assertThrows(IllegalArgumentException.class, () -> DoubleArrayTrie.fromSorted(List.of("a1")));
+    }
+
+    @Test
+    public void testStressFromTrie() throws IOException {
+        TrieStressTests.testStressFromSorted(DoubleArrayTrie::fromSorted);
+    }
+}
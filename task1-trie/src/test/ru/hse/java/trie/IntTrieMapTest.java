@@ -0,0 +1,89 @@
+package ru.hse.java.trie;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+public class IntTrieMapTest {
+
+    private IntTrieMap trie;
+
+    private static final int STRING_LENGTH = 4;
+    private static final int STRESS_TEST_SIZE = 10_000;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        trie = new IntTrieMap();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        assertTrue(trie.put("abc", 5));
+        assertFalse(trie.put("abc", 7));
+        assertTrue(trie.add("ab"));
+        assertEquals(trie.size(), 2);
+        assertEquals(trie.get("abc"), 7);
+        assertEquals(trie.get("ab"), 0);
+        assertEquals(trie.get("a"), 0);
+        assertEquals(trie.getOrDefault("a", -1), -1);
+        assertEquals(trie.getOrDefault("ab", -1), 0);
+    }
+
+    @Test
+    public void testIncrementAndMerge() {
+        assertEquals(trie.increment("word", 1), 1);
+        assertEquals(trie.increment("word", 2), 3);
+        assertEquals(trie.increment("wor", -1), -1);
+        assertEquals(trie.merge("word", 10, Math::max), 10);
+        assertEquals(trie.merge("words", 10, Math::min), 10);
+        assertEquals(trie.size(), 3);
+        assertEquals(trie.howManyStartsWithPrefix("word"), 2);
+        assertTrue(trie.remove("word"));
+        assertEquals(trie.increment("word", 1), 1);
+    }
+
+    @Test
+    public void testIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> trie.increment("a1", 1));
+        assertTrue(trie.put("", 1));
+        assertThrows(IllegalArgumentException.class, () -> trie.put("a b", 1));
+        assertEquals(trie.size(), 1);
+        assertEquals(trie.howManyStartsWithPrefix("a"), 0);
+    }
+
+    @Test
+    public void testStressAgainstHashMap() {
+        Random random = new Random();
+        Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int j = random.nextInt(STRING_LENGTH + 1); j > 0; j--) {
+                stringBuilder.append((char) (random.nextInt(3) + 'a'));
+            }
+            String key = stringBuilder.toString();
+            int value = random.nextInt(10);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(trie.put(key, value), expected.put(key, value) == null);
+                    break;
+                case 1:
+                    assertEquals(trie.remove(key), expected.remove(key) != null);
+                    break;
+                default:
+                    assertEquals(trie.increment(key, value), (int) expected.merge(key, value, Integer::sum));
+            }
+        }
+
+        assertEquals(trie.size(), expected.size());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(trie.get(entry.getKey()), (int) entry.getValue());
+        }
+    }
+
+    @Test
+    public void testStressAgainstTreeSet() {
+        TrieStressTests.testStressAgainstTreeSet(IntTrieMap::new);
+    }
+}
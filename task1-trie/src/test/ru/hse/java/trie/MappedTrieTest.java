@@ -0,0 +1,96 @@
+package ru.hse.java.trie;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class MappedTrieTest {
+
+    private Path file;
+
+    @BeforeEach
+    public void beforeEachTest() throws IOException {
+        file = Files.createTempFile("trie", ".bin");
+    }
+
+    @AfterEach
+    public void afterEachTest() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testWriteAndOpen() throws IOException {
+        MappedTrie.write(List.of("", "B", "a", "ab", "abc", "b"), file);
+        MappedTrie trie = MappedTrie.open(file);
+        assertEquals(trie.size(), 6);
+        assertTrue(trie.contains(""));
+        assertTrue(trie.contains("abc"));
+        assertFalse(trie.contains("A"));
+        assertFalse(trie.contains("abcd"));
+        assertEquals(trie.howManyStartsWithPrefix("a"), 3);
+        assertEquals(trie.howManyStartsWithPrefix("c"), 0);
+        assertEquals(trie.nextString("B", 1), "a");
+        assertEquals(trie.nextString("aa", 1), "ab");
+        assertNull(trie.nextString("b", 1));
+        assertIterableEquals(trie, List.of("", "B", "a", "ab", "abc", "b"));
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        MappedTrie.write(List.of(), file);
+        MappedTrie trie = MappedTrie.open(file);
+        assertEquals(trie.size(), 0);
+        assertFalse(trie.contains(""));
+        assertNull(trie.nextString("", 1));
+    }
+
+    @Test
+    public void testReadOnly() throws IOException {
+        MappedTrie.write(List.of("a"), file);
+        MappedTrie trie = MappedTrie.open(file);
+        assertThrows(UnsupportedOperationException.class, () -> trie.add("b"));
+        assertThrows(UnsupportedOperationException.class, () -> trie.remove("a"));
+    }
+
+    @Test
+    public void testIllegalArgument() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> MappedTrie.write(List.of("b", "a"), file));
+        assertThrows(IllegalArgumentException.class, () -> MappedTrie.write(List.of("a", "a"), file));
+        assertThrows(IllegalArgumentException.class, () -> MappedTrie.write(List.of("a1"), file));
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        assertThrows(IllegalArgumentException.class, () -> MappedTrie.open(file));
+    }
+
+    @Test
+    public void testFailedWriteLeavesNoFile() throws IOException {
+        Path directory = Files.createTempDirectory("trie");
+        Path path = directory.resolve("trie.bin");
+        try {
+            assertThrows(IllegalArgumentException.class, () -> MappedTrie.write(List.of("a", "c", "b"), path));
+            assertFalse(Files.exists(path));
+            MappedTrie.write(List.of("a", "b"), path);
+            assertThrows(IllegalArgumentException.class, () -> MappedTrie.write(List.of("a", "b1"), path));
+            assertIterableEquals(MappedTrie.open(path), List.of("a", "b"));
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(files.count(), 1);
+            }
+        } finally {
+            Files.deleteIfExists(path);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testStressWriteTrie() throws IOException {
+        TrieStressTests.testStressFromSorted(sortedWords -> {
+            MappedTrie.write(sortedWords, file);
+            return MappedTrie.open(file);
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package ru.hse.java.trie;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RadixTrieTest {
+
+    private RadixTrie trie;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        trie = new RadixTrie();
+    }
+
+    @Test
+    public void testAddAndContains() {
+        assertTrue(trie.add("AbAca"));
+        assertTrue(trie.add("zZ"));
+        assertTrue(trie.add(""));
+        assertFalse(trie.add("zZ"));
+        assertEquals(trie.size(), 3);
+        assertTrue(trie.contains("AbAca"));
+        assertTrue(trie.contains(""));
+        assertFalse(trie.contains("AbAc"));
+        assertFalse(trie.contains("z"));
+    }
+
+    @Test
+    public void testIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> trie.add("a_b"));
+        assertEquals(trie.size(), 0);
+        assertFalse(trie.contains("a_b"));
+    }
+
+    @Test
+    public void testSplitEdge() {
+        assertTrue(trie.add("abcdef"));
+        assertTrue(trie.add("abcxyz"));
+        assertTrue(trie.add("abc"));
+        assertFalse(trie.contains("ab"));
+        assertFalse(trie.contains("abcd"));
+        assertTrue(trie.contains("abcdef"));
+        assertTrue(trie.contains("abcxyz"));
+        assertTrue(trie.contains("abc"));
+        assertEquals(trie.howManyStartsWithPrefix("ab"), 3);
+        assertEquals(trie.howManyStartsWithPrefix("abcd"), 1);
+        assertEquals(trie.howManyStartsWithPrefix("abcdefg"), 0);
+    }
+
+    @Test
+    public void testRemoveMergesEdges() {
+        assertTrue(trie.add("abcdef"));
+        assertTrue(trie.add("abcxyz"));
+        assertTrue(trie.add("abc"));
+        assertTrue(trie.remove("abc"));
+        assertTrue(trie.remove("abcxyz"));
+        assertFalse(trie.contains("abc"));
+        assertTrue(trie.contains("abcdef"));
+        assertEquals(trie.howManyStartsWithPrefix("abcde"), 1);
+        assertTrue(trie.add("abcd"));
+        assertEquals(trie.nextString("abcd", 1), "abcdef");
+        assertEquals(trie.size(), 2);
+    }
+
+    @Test
+    public void testAddAfterRemove() {
+        assertTrue(trie.add("abc"));
+        assertTrue(trie.remove("abc"));
+        assertTrue(trie.add("abc"));
+        assertTrue(trie.contains("abc"));
+        assertEquals(trie.howManyStartsWithPrefix("a"), 1);
+    }
+
+    @Test
+    public void testNextStringInsideEdge() {
+        assertTrue(trie.add("abcdef"));
+        assertTrue(trie.add("abzz"));
+        assertEquals(trie.nextString("abc", 1), "abcdef");
+        assertEquals(trie.nextString("abd", 1), "abzz");
+        assertEquals(trie.nextString("abcdeg", 1), "abzz");
+        assertNull(trie.nextString("ac", 1));
+    }
+
+    @Test
+    public void testHowManyStartsWithPrefix() {
+        assertTrue(trie.add("aaaaa"));
+        assertTrue(trie.add("aaabcde"));
+        assertTrue(trie.add("aa"));
+        assertTrue(trie.add("Aa"));
+        assertEquals(trie.howManyStartsWithPrefix(""), 4);
+        assertEquals(trie.howManyStartsWithPrefix("a"), 3);
+        assertEquals(trie.howManyStartsWithPrefix("aaa"), 2);
+        assertEquals(trie.howManyStartsWithPrefix("A"), 1);
+        assertEquals(trie.howManyStartsWithPrefix("b"), 0);
+    }
+
+    @Test
+    public void testNextStringWithPrefixWords() {
+        assertTrue(trie.add(""));
+        assertTrue(trie.add("a"));
+        assertTrue(trie.add("ab"));
+        assertTrue(trie.add("B"));
+        assertEquals(trie.nextString("", 0), "");
+        assertEquals(trie.nextString("", 1), "B");
+        assertEquals(trie.nextString("a", 1), "ab");
+        assertNull(trie.nextString("ab", 1));
+        assertEquals(trie.nextString("aa", 1), "ab");
+        assertNull(trie.nextString("aa", 0));
+    }
+
+    @Test
+    public void testStressAgainstTreeSet() {
+        TrieStressTests.testStressAgainstTreeSet(RadixTrie::new);
+    }
+
+    @Test
+    public void testStressNextString() {
+        TrieStressTests.testStressNextString(RadixTrie::new);
+    }
+}
@@ -31,6 +31,10 @@ public class StressTreeSetWrapper {
         return result;
     }
 
+    public int rank(String element) {
+        return tree.headSet(element).size();
+    }
+
     public String nextString(String element, int k) {
         if (k == 0) {
             if (tree.contains(element))
@@ -0,0 +1,165 @@
+package ru.hse.java.trie;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+public class SuffixTrieTest {
+
+    private SuffixTrie trie;
+
+    private static final int STRING_LENGTH = 8;
+    private static final int STRESS_TEST_SIZE = 5_000;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        trie = new SuffixTrie();
+    }
+
+    @Test
+    public void testSubstrings() {
+        assertTrue(trie.add("banana"));
+        assertTrue(trie.add("bandana"));
+        assertTrue(trie.add("Ananas"));
+        assertFalse(trie.add("banana"));
+        assertEquals(trie.size(), 3);
+        assertEquals(trie.howManyContainSubstring("ana"), 3);
+        assertEquals(trie.howManyContainSubstring("nan"), 2);
+        assertEquals(trie.howManyContainSubstring("band"), 1);
+        assertEquals(trie.howManyContainSubstring("A"), 1);
+        assertEquals(trie.howManyContainSubstring(""), 3);
+        assertEquals(trie.howManyContainSubstring("x"), 0);
+        assertEquals(trie.howManyContainSubstring("a_"), 0);
+        assertTrue(trie.containsSubstring("dan"));
+        assertFalse(trie.containsSubstring("nab"));
+    }
+
+    @Test
+    public void testRemove() {
+        assertTrue(trie.add("abab"));
+        assertTrue(trie.add("ba"));
+        assertTrue(trie.remove("abab"));
+        assertFalse(trie.remove("abab"));
+        assertEquals(trie.howManyContainSubstring("ab"), 0);
+        assertEquals(trie.howManyContainSubstring("ba"), 1);
+        assertEquals(trie.howManyContainSubstring("b"), 1);
+        assertTrue(trie.remove("ba"));
+        assertEquals(trie.howManyContainSubstring(""), 0);
+        assertFalse(trie.containsSubstring("a"));
+        assertTrue(trie.add("abab"));
+        assertEquals(trie.howManyContainSubstring("bab"), 1);
+    }
+
+    @Test
+    public void testRemoveMergesNodes() {
+        assertTrue(trie.add("aab"));
+        assertTrue(trie.add("ab"));
+        // the first suffix of "aab" leaves the node of "a" with the single child "b"
+        assertTrue(trie.remove("aab"));
+        assertEquals(trie.howManyContainSubstring("a"), 1);
+        assertEquals(trie.howManyContainSubstring("ab"), 1);
+        assertEquals(trie.howManyContainSubstring("b"), 1);
+        assertEquals(trie.howManyContainSubstring("aa"), 0);
+        assertTrue(trie.remove("ab"));
+        assertEquals(trie.howManyContainSubstring(""), 0);
+        assertFalse(trie.containsSubstring("a"));
+    }
+
+    @Test
+    public void testTrieOperations() {
+        assertTrue(trie.add("car"));
+        assertTrue(trie.add("cart"));
+        assertTrue(trie.add("scar"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("car1"));
+        assertEquals(trie.howManyContainSubstring("car"), 3);
+        assertEquals(trie.howManyStartsWithPrefix("car"), 2);
+        assertEquals(trie.nextString("car", 1), "cart");
+        assertEquals(trie.completions("ca", 10), List.of("car", "cart"));
+        assertIterableEquals(trie, List.of("car", "cart", "scar"));
+    }
+
+    @Test
+    public void testLongStrings() {
+        // without compaction the suffixes of these strings would take hundreds of millions of nodes
+        Random random = new Random();
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            stringBuilder.append((char) (random.nextInt(26) + 'a'));
+        }
+        String first = stringBuilder.toString();
+        String second = first.substring(10_000) + "ABC";
+        assertTrue(trie.add(first));
+        assertTrue(trie.add(second));
+        assertEquals(trie.howManyContainSubstring(first.substring(12_000, 15_000)), 2);
+        assertEquals(trie.howManyContainSubstring(first.substring(5_000, 8_000)), 1);
+        assertEquals(trie.howManyContainSubstring(first.substring(19_000) + "AB"), 1);
+        assertTrue(trie.remove(first));
+        assertEquals(trie.howManyContainSubstring(first.substring(12_000, 15_000)), 1);
+        assertFalse(trie.containsSubstring(first.substring(5_000, 8_000)));
+    }
+
+    private void assertSubstringCounts(Set<String> expected, String substring) {
+        assertEquals(trie.howManyContainSubstring(substring),
+                (int) expected.stream().filter(element -> element.contains(substring)).count());
+    }
+
+    @Test
+    public void testStressSparseAgainstSet() {
+        // a few long strings, so removals leave nodes with a single child which are merged
+        Random random = new Random();
+        for (int round = 0; round < 200; round++) {
+            trie = new SuffixTrie();
+            Set<String> expected = new HashSet<>();
+            for (int i = 0; i < 30; i++) {
+                StringBuilder stringBuilder = new StringBuilder();
+                for (int j = random.nextInt(3 * STRING_LENGTH); j > 0; j--) {
+                    stringBuilder.append((char) (random.nextInt(3) + 'a'));
+                }
+                String element = stringBuilder.toString();
+                if (random.nextInt(3) == 0 && !expected.isEmpty()) {
+                    String removed = expected.iterator().next();
+                    assertTrue(trie.remove(removed));
+                    expected.remove(removed);
+                } else {
+                    assertEquals(trie.add(element), expected.add(element));
+                }
+                for (int from = 0; from < element.length(); from++) {
+                    int to = from + 1 + random.nextInt(element.length() - from);
+                    assertSubstringCounts(expected, element.substring(from, to));
+                }
+                assertSubstringCounts(expected, "");
+            }
+        }
+    }
+
+    @Test
+    public void testStressAgainstSet() {
+        Random random = new Random();
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int j = random.nextInt(STRING_LENGTH + 1); j > 0; j--) {
+                stringBuilder.append((char) (random.nextInt(3) + 'a'));
+            }
+            String element = stringBuilder.toString();
+            if (random.nextInt(3) == 0) {
+                assertEquals(trie.remove(element), expected.remove(element));
+            } else {
+                assertEquals(trie.add(element), expected.add(element));
+            }
+        }
+
+        assertEquals(trie.size(), expected.size());
+        for (int i = 0; i < 200; i++) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int j = random.nextInt(5); j > 0; j--) {
+                stringBuilder.append((char) (random.nextInt(3) + 'a'));
+            }
+            String substring = stringBuilder.toString();
+            assertEquals(trie.howManyContainSubstring(substring),
+                    (int) expected.stream().filter(element -> element.contains(substring)).count());
+        }
+    }
+}
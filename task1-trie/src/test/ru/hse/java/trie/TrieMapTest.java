@@ -0,0 +1,120 @@
+package ru.hse.java.trie;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+public class TrieMapTest {
+
+    private TrieMap<String> trie;
+
+    private static final int STRING_LENGTH = 4;
+    private static final int STRESS_TEST_SIZE = 10_000;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        trie = new TrieMap<>();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        assertNull(trie.put("abc", "x"));
+        assertNull(trie.put("ab", null));
+        assertEquals(trie.put("abc", "y"), "x");
+        assertEquals(trie.size(), 2);
+        assertEquals(trie.get("abc"), "y");
+        assertNull(trie.get("ab"));
+        assertTrue(trie.contains("ab"));
+        assertNull(trie.get("a"));
+        assertFalse(trie.contains("a"));
+        assertEquals(trie.howManyStartsWithPrefix("a"), 2);
+    }
+
+    @Test
+    public void testAddKeepsValue() {
+        assertNull(trie.put("a", "x"));
+        assertFalse(trie.add("a"));
+        assertEquals(trie.get("a"), "x");
+        assertTrue(trie.add("b"));
+        assertNull(trie.get("b"));
+    }
+
+    @Test
+    public void testMerge() {
+        assertEquals(trie.merge("car", "a", String::concat), "a");
+        assertEquals(trie.merge("car", "b", String::concat), "ab");
+        assertTrue(trie.add("cat"));
+        assertEquals(trie.merge("cat", "c", String::concat), "c");
+        assertNull(trie.merge("car", "d", (oldValue, value) -> null));
+        assertFalse(trie.contains("car"));
+        assertEquals(trie.size(), 1);
+        assertEquals(trie.howManyStartsWithPrefix("ca"), 1);
+        assertEquals(trie.nextString("", 1), "cat");
+    }
+
+    @Test
+    public void testIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> trie.put("a1", "x"));
+        assertThrows(IllegalArgumentException.class, () -> trie.merge("a b", "x", String::concat));
+        assertThrows(NullPointerException.class, () -> trie.merge("a", null, String::concat));
+        assertEquals(trie.size(), 0);
+        assertFalse(trie.remove("a1"));
+    }
+
+    @Test
+    public void testRemovePrunes() {
+        assertNull(trie.put("abc", "x"));
+        assertNull(trie.put("abd", "y"));
+        assertTrue(trie.remove("abc"));
+        assertFalse(trie.remove("abc"));
+        assertFalse(trie.remove("ab"));
+        assertEquals(trie.howManyStartsWithPrefix("abc"), 0);
+        assertEquals(trie.get("abd"), "y");
+        assertTrue(trie.remove("abd"));
+        assertEquals(trie.howManyStartsWithPrefix(""), 0);
+        assertNull(trie.nextString("", 1));
+    }
+
+    @Test
+    public void testStressAgainstTreeMap() {
+        Random random = new Random();
+        TreeMap<String, String> expected = new TreeMap<>();
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int j = random.nextInt(STRING_LENGTH + 1); j > 0; j--) {
+                stringBuilder.append((char) (random.nextInt(3) + 'a'));
+            }
+            String key = stringBuilder.toString();
+            String value = String.valueOf(random.nextInt(3));
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(trie.put(key, value), expected.put(key, value));
+                    break;
+                case 1:
+                    assertEquals(trie.remove(key), expected.remove(key) != null);
+                    break;
+                default:
+                    BiFunction<String, String, String> remapping =
+                            (oldValue, newValue) -> oldValue.length() > 3 ? null : oldValue + newValue;
+                    assertEquals(trie.merge(key, value, remapping), expected.merge(key, value, remapping));
+            }
+        }
+
+        assertEquals(trie.size(), expected.size());
+        assertIterableEquals(trie, expected.keySet());
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            assertEquals(trie.get(entry.getKey()), entry.getValue());
+            String prefix = entry.getKey().substring(0, entry.getKey().length() / 2);
+            assertEquals(trie.howManyStartsWithPrefix(prefix),
+                    expected.subMap(prefix, prefix + Character.MAX_VALUE).size());
+        }
+    }
+
+    @Test
+    public void testStressAgainstTreeSet() {
+        TrieStressTests.testStressAgainstTreeSet(TrieMap::new);
+    }
+}
@@ -0,0 +1,123 @@
+package ru.hse.java.trie;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Stress scenarios shared by the tests of Trie implementations: random strings
+ * and the comparison with StressTreeSetWrapper
+ */
+final class TrieStressTests {
+
+    private static final int STRING_LENGTH = 15;
+    private static final int SHORT_STRING_LENGTH = 4;
+    private static final int SORTED_STRING_LENGTH = 8;
+    private static final int STRESS_TEST_SIZE = 10_000;
+
+    private static final int[] LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".codePoints().toArray();
+
+    /**
+     * Builds a read-only trie from strings in lexicographic order
+     */
+    interface SortedTrieFactory {
+        Trie create(Iterable<String> sortedWords) throws IOException;
+    }
+
+    private TrieStressTests() {
+    }
+
+    /**
+     * @return strings of English letters with lengths from 0 to maxLength
+     */
+    static String[] generateRandomStrings(int bufferSize, int maxLength) {
+        return generateRandomStrings(bufferSize, maxLength, LETTERS);
+    }
+
+    /**
+     * @return strings of the passed code points with lengths (in code points) from 0 to maxLength
+     */
+    static String[] generateRandomStrings(int bufferSize, int maxLength, int[] codePoints) {
+        Random random = new Random();
+        String[] buffer = new String[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int j = random.nextInt(maxLength + 1); j > 0; j--) {
+                stringBuilder.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+            }
+            buffer[i] = stringBuilder.toString();
+        }
+        return buffer;
+    }
+
+    /**
+     * Compares the queries of trie on every string of words, on its extension
+     * and on its first half with the same queries of expected
+     */
+    static void assertSameAsTreeSet(Trie trie, StressTreeSetWrapper expected, String[] words) {
+        Random random = new Random();
+        assertEquals(trie.size(), expected.size());
+        for (int i = words.length - 1; i >= 0; i--) {
+            String element = words[i];
+            assertEquals(trie.contains(element), expected.contains(element));
+            assertEquals(trie.contains(element + "aZ"), expected.contains(element + "aZ"));
+            assertEquals(trie.rank(element), expected.rank(element));
+            String prefix = element.substring(0, element.length() / 2);
+            assertEquals(trie.howManyStartsWithPrefix(prefix), expected.howManyStartsWithPrefix(prefix));
+            int k = random.nextInt(10);
+            assertEquals(trie.nextString(element, k), expected.nextString(element, k));
+            assertEquals(trie.nextString(prefix, k), expected.nextString(prefix, k));
+        }
+    }
+
+    /**
+     * Adds short random strings, removes a half of them and compares the trie with TreeSet
+     */
+    static void testStressAgainstTreeSet(Supplier<? extends Trie> supplier) {
+        Trie trie = supplier.get();
+        StressTreeSetWrapper expected = new StressTreeSetWrapper();
+        String[] buffer = generateRandomStrings(STRESS_TEST_SIZE, SHORT_STRING_LENGTH);
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            assertEquals(trie.add(buffer[i]), expected.add(buffer[i]));
+        }
+        assertEquals(trie.size(), expected.size());
+        for (int i = 0; i < STRESS_TEST_SIZE; i += 2) {
+            assertEquals(trie.remove(buffer[i]), expected.remove(buffer[i]));
+        }
+        assertSameAsTreeSet(trie, expected, buffer);
+    }
+
+    /**
+     * Adds long random strings and compares nextString with far steps for random strings
+     */
+    static void testStressNextString(Supplier<? extends Trie> supplier) {
+        Trie trie = supplier.get();
+        StressTreeSetWrapper expected = new StressTreeSetWrapper();
+        String[] buffer = generateRandomStrings(STRESS_TEST_SIZE, STRING_LENGTH);
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            assertEquals(trie.add(buffer[i]), expected.add(buffer[i]));
+        }
+
+        Random random = new Random();
+        for (String element : generateRandomStrings(STRESS_TEST_SIZE, STRING_LENGTH - 1)) {
+            int k = random.nextInt(STRESS_TEST_SIZE / 2);
+            assertEquals(trie.nextString(element, k), expected.nextString(element, k));
+        }
+    }
+
+    /**
+     * Builds a trie from the strings of a random TrieImpl and compares it with TreeSet
+     */
+    static void testStressFromSorted(SortedTrieFactory factory) throws IOException {
+        TrieImpl source = new TrieImpl();
+        StressTreeSetWrapper expected = new StressTreeSetWrapper();
+        String[] buffer = generateRandomStrings(STRESS_TEST_SIZE, SORTED_STRING_LENGTH);
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            assertEquals(source.add(buffer[i]), expected.add(buffer[i]));
+        }
+
+        assertSameAsTreeSet(factory.create(source), expected, buffer);
+    }
+}
@@ -5,7 +5,9 @@ import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.Duration;
-import java.util.Random;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 public class TrieTest {
 
@@ -29,6 +31,20 @@ public class TrieTest {
         }
     }
 
+    private static String randomString(Random random, int maxLength) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int j = random.nextInt(maxLength + 1); j > 0; j--) {
+            stringBuilder.append((char) (random.nextInt(4) + 'a'));
+        }
+        return stringBuilder.toString();
+    }
+
+    private static List<String> toList(Iterator<String> iterator) {
+        List<String> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        return result;
+    }
+
     @BeforeEach
     public void beforeEachTest() {
         trie = new TrieImpl();
@@ -84,6 +100,29 @@ public class TrieTest {
         );
     }
 
+    @Test
+    public void testIllegalArgumentKeepsTrie() {
+        assertTrue(trie.add("abc"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("abxy1"));
+        assertEquals(trie.size(), 1);
+        assertEquals(trie.nodeCount(), 4);
+        assertEquals(trie.howManyStartsWithPrefix("ab"), 1);
+        assertFalse(trie.contains("abxy"));
+    }
+
+    @Test
+    public void testRemoveNonExistentKeepsCounts() {
+        assertTrue(trie.add("abc"));
+        assertTrue(trie.add("abd"));
+        assertFalse(trie.remove("ab"));
+        assertFalse(trie.remove("abcd"));
+        assertFalse(trie.remove("ab1"));
+        assertEquals(trie.howManyStartsWithPrefix("ab"), 2);
+        assertEquals(trie.howManyStartsWithPrefix("abc"), 1);
+        assertEquals(trie.nextString("abc", 1), "abd");
+        assertEquals(trie.size(), 2);
+    }
+
     @Test
     public void testRemoveExistingString() {
         assertTrue(trie.add("ae"));
@@ -295,6 +334,538 @@ public class TrieTest {
         assertNull(trie.nextString("q", 3));
     }
 
+    @Test
+    public void testNextStringWithPrefixWords() {
+        assertTrue(trie.add(""));
+        assertTrue(trie.add("a"));
+        assertTrue(trie.add("ab"));
+        assertTrue(trie.add("B"));
+        assertEquals(trie.nextString("", 1), "B");
+        assertEquals(trie.nextString("a", 1), "ab");
+        assertNull(trie.nextString("ab", 1));
+        assertEquals(trie.nextString("aa", 1), "ab");
+        assertEquals(trie.nextString("Z", 1), "a");
+    }
+
+    @Test
+    public void testNodeCount() {
+        assertEquals(trie.nodeCount(), 1);
+        assertTrue(trie.add("abc"));
+        assertTrue(trie.add("abd"));
+        assertEquals(trie.nodeCount(), 5);
+        assertTrue(trie.remove("abc"));
+        assertEquals(trie.nodeCount(), 4);
+        assertTrue(trie.remove("abd"));
+        assertEquals(trie.nodeCount(), 1);
+    }
+
+    @Test
+    public void testRemovePrefixKeepsNodes() {
+        assertTrue(trie.add("ab"));
+        assertTrue(trie.add("abcd"));
+        assertTrue(trie.remove("ab"));
+        assertEquals(trie.nodeCount(), 5);
+        assertTrue(trie.remove("abcd"));
+        assertEquals(trie.nodeCount(), 1);
+    }
+
+    @Test
+    public void testNodeCountAfterChurn() {
+        generateRandomStrings(STRESS_TEST_SIZE);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+                trie.add(buffer[i]);
+            }
+            for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+                trie.remove(buffer[i]);
+            }
+            assertEquals(trie.nodeCount(), 1);
+        }
+    }
+
+    @Test
+    public void testCompact() {
+        generateRandomStrings(STRESS_TEST_SIZE);
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            assertEquals(trie.add(buffer[i]), stressTree.add(buffer[i]));
+        }
+        for (int i = 0; i < STRESS_TEST_SIZE; i += 3) {
+            assertEquals(trie.remove(buffer[i]), stressTree.remove(buffer[i]));
+        }
+        int nodeCount = trie.nodeCount();
+        assertEquals(trie.compact(), nodeCount);
+        assertEquals(trie.size(), stressTree.size());
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            assertEquals(trie.contains(buffer[i]), stressTree.contains(buffer[i]));
+            assertEquals(trie.nextString(buffer[i], 1), stressTree.nextString(buffer[i], 1));
+        }
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByChanges() {
+        assertTrue(trie.add("abc"));
+        assertTrue(trie.add("abd"));
+        Trie snapshot = trie.snapshot();
+        assertTrue(trie.add("abe"));
+        assertTrue(trie.remove("abc"));
+        assertTrue(trie.add(""));
+
+        assertEquals(snapshot.size(), 2);
+        assertTrue(snapshot.contains("abc"));
+        assertFalse(snapshot.contains("abe"));
+        assertFalse(snapshot.contains(""));
+        assertEquals(snapshot.howManyStartsWithPrefix("ab"), 2);
+        assertEquals(snapshot.nextString("abc", 1), "abd");
+
+        assertEquals(trie.size(), 3);
+        assertFalse(trie.contains("abc"));
+        assertEquals(trie.howManyStartsWithPrefix("ab"), 2);
+        assertEquals(trie.nextString("abd", 1), "abe");
+    }
+
+    @Test
+    public void testRemoveAbsentAfterSnapshot() {
+        assertTrue(trie.add("abc"));
+        assertTrue(trie.add("abd"));
+        Trie snapshot = trie.snapshot();
+        assertFalse(trie.remove("ab"));
+        assertFalse(trie.remove("abcd"));
+        assertFalse(trie.remove("ab1"));
+        assertFalse(trie.remove("x"));
+        assertEquals(trie.size(), 2);
+        assertEquals(trie.howManyStartsWithPrefix("ab"), 2);
+        assertEquals(trie.rank("abd"), 1);
+        assertTrue(trie.remove("abc"));
+        assertEquals(trie.howManyStartsWithPrefix("ab"), 1);
+        assertEquals(snapshot.howManyStartsWithPrefix("ab"), 2);
+        assertTrue(snapshot.contains("abc"));
+    }
+
+    @Test
+    public void testSnapshotIsReadOnly() {
+        assertTrue(trie.add("abc"));
+        TrieImpl snapshot = trie.snapshot();
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add("abd"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove("abc"));
+        assertThrows(UnsupportedOperationException.class, snapshot::compact);
+        assertSame(snapshot.snapshot(), snapshot);
+        assertTrue(snapshot.contains("abc"));
+    }
+
+    @Test
+    public void testStressSnapshots() {
+        generateRandomStrings(STRESS_TEST_SIZE);
+        TrieImpl[] snapshots = new TrieImpl[10];
+        StressTreeSetWrapper[] expected = new StressTreeSetWrapper[snapshots.length];
+        for (int s = 0; s < snapshots.length; s++) {
+            for (int i = s; i < STRESS_TEST_SIZE; i += snapshots.length) {
+                assertEquals(trie.add(buffer[i]), stressTree.add(buffer[i]));
+            }
+            for (int i = 0; i < STRESS_TEST_SIZE; i += 7 * (s + 1)) {
+                assertEquals(trie.remove(buffer[i]), stressTree.remove(buffer[i]));
+            }
+            snapshots[s] = trie.snapshot();
+            expected[s] = new StressTreeSetWrapper();
+            for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+                if (stressTree.contains(buffer[i])) {
+                    expected[s].add(buffer[i]);
+                }
+            }
+        }
+
+        for (int s = 0; s < snapshots.length; s++) {
+            assertEquals(snapshots[s].size(), expected[s].size());
+            for (int i = 0; i < STRESS_TEST_SIZE; i += 3) {
+                assertEquals(snapshots[s].contains(buffer[i]), expected[s].contains(buffer[i]));
+                assertEquals(snapshots[s].nextString(buffer[i], 2), expected[s].nextString(buffer[i], 2));
+                String prefix = buffer[i].substring(0, i % STRING_LENGTH);
+                assertEquals(snapshots[s].howManyStartsWithPrefix(prefix), expected[s].howManyStartsWithPrefix(prefix));
+            }
+        }
+    }
+
+    @Test
+    public void testCompletions() {
+        assertTrue(trie.add("car"));
+        assertTrue(trie.add("cart"));
+        assertTrue(trie.add("care"));
+        assertTrue(trie.add("cat"));
+        assertTrue(trie.add("Cab"));
+        assertEquals(trie.completions("car", 10), List.of("car", "care", "cart"));
+        assertEquals(trie.completions("ca", 2), List.of("car", "care"));
+        assertEquals(trie.completions("", 2), List.of("Cab", "car"));
+        assertEquals(trie.completions("cb", 2), List.of());
+        assertEquals(trie.completions("car", 0), List.of());
+    }
+
+    @Test
+    public void testStressCompletions() {
+        generateRandomStrings(STRESS_TEST_SIZE);
+        TreeSet<String> expected = new TreeSet<>();
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            assertEquals(trie.add(buffer[i]), expected.add(buffer[i]));
+        }
+        for (int i = 0; i < STRESS_TEST_SIZE; i += 10) {
+            String prefix = buffer[i].substring(0, i % 3);
+            List<String> completions = expected.tailSet(prefix).stream()
+                    .filter(element -> element.startsWith(prefix))
+                    .limit(5)
+                    .collect(Collectors.toList());
+            assertEquals(trie.completions(prefix, 5), completions);
+        }
+    }
+
+    @Test
+    public void testIterator() {
+        assertFalse(trie.iterator().hasNext());
+        assertTrue(trie.add("b"));
+        assertTrue(trie.add(""));
+        assertTrue(trie.add("ab"));
+        assertTrue(trie.add("a"));
+        assertTrue(trie.add("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ"));
+        List<String> elements = new ArrayList<>();
+        for (String element : trie) {
+            elements.add(element);
+        }
+        assertEquals(elements, List.of("", "a", "ab", "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ", "b"));
+    }
+
+    @Test
+    public void testIteratorAfterEnd() {
+        assertTrue(trie.add("a"));
+        Iterator<String> iterator = trie.iterator();
+        assertEquals(iterator.next(), "a");
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    public void testIteratorFailsAfterModification() {
+        assertTrue(trie.add("a"));
+        assertTrue(trie.add("b"));
+        Iterator<String> iterator = trie.iterator();
+        assertTrue(trie.add("c"));
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+
+        Iterator<String> snapshotIterator = trie.snapshot().iterator();
+        assertTrue(trie.remove("a"));
+        assertEquals(snapshotIterator.next(), "a");
+    }
+
+    @Test
+    public void testStressIterator() {
+        generateRandomStrings(STRESS_TEST_SIZE);
+        TreeSet<String> expected = new TreeSet<>();
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            assertEquals(trie.add(buffer[i].substring(0, i % STRING_LENGTH)),
+                    expected.add(buffer[i].substring(0, i % STRING_LENGTH)));
+        }
+        assertIterableEquals(trie, expected);
+    }
+
+    @Test
+    public void testSpliterator() {
+        generateRandomStrings(STRESS_TEST_SIZE);
+        TreeSet<String> expected = new TreeSet<>();
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            assertEquals(trie.add(buffer[i].substring(0, i % STRING_LENGTH)),
+                    expected.add(buffer[i].substring(0, i % STRING_LENGTH)));
+        }
+
+        Spliterator<String> spliterator = trie.spliterator();
+        assertEquals(spliterator.getExactSizeIfKnown(), expected.size());
+        Spliterator<String> prefix = spliterator.trySplit();
+        assertEquals(prefix.estimateSize() + spliterator.estimateSize(), expected.size());
+        assertTrue(prefix.tryAdvance(element -> assertEquals(element, expected.first())));
+
+        assertEquals(StreamSupport.stream(trie.spliterator(), true).collect(Collectors.toList()),
+                new ArrayList<>(expected));
+        assertEquals(StreamSupport.stream(trie.spliterator(), true).filter(element -> element.startsWith("ab")).count(),
+                trie.howManyStartsWithPrefix("ab"));
+    }
+
+    @Test
+    public void testSplitAfterAdvance() {
+        for (char symbol = 'a'; symbol <= 'j'; symbol++) {
+            assertTrue(trie.add(String.valueOf(symbol)));
+        }
+        Spliterator<String> spliterator = trie.spliterator();
+        assertTrue(spliterator.tryAdvance(element -> assertEquals(element, "a")));
+        Spliterator<String> prefix = spliterator.trySplit();
+        List<String> elements = new ArrayList<>();
+        prefix.forEachRemaining(elements::add);
+        spliterator.forEachRemaining(elements::add);
+        assertEquals(elements, List.of("b", "c", "d", "e", "f", "g", "h", "i", "j"));
+    }
+
+    @Test
+    public void testFromSorted() {
+        trie = TrieImpl.fromSorted(List.of("", "B", "a", "ab", "abc", "b"));
+        assertEquals(trie.size(), 6);
+        assertEquals(trie.nodeCount(), 6);
+        assertTrue(trie.contains(""));
+        assertTrue(trie.contains("abc"));
+        assertFalse(trie.contains("A"));
+        assertEquals(trie.howManyStartsWithPrefix("a"), 3);
+        assertEquals(trie.nextString("B", 1), "a");
+        assertTrue(trie.add("aa"));
+        assertTrue(trie.remove("abc"));
+        assertIterableEquals(trie, List.of("", "B", "a", "aa", "ab", "b"));
+    }
+
+    @Test
+    public void testFromSortedEmpty() {
+        trie = TrieImpl.fromSorted(List.of());
+        assertEquals(trie.size(), 0);
+        assertTrue(trie.add("a"));
+    }
+
+    @Test
+    public void testFromSortedIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> TrieImpl.fromSorted(List.of("b", "a")));
+        assertThrows(IllegalArgumentException.class, () -> TrieImpl.fromSorted(List.of("ab", "a")));
+        assertThrows(IllegalArgumentException.class, () -> TrieImpl.fromSorted(List.of("a", "a")));
+        assertThrows(IllegalArgumentException.class, () -> TrieImpl.fromSorted(List.of("a", "b1")));
+    }
+
+    @Test
+    public void testStressFromSorted() {
+        generateRandomStrings(STRESS_TEST_SIZE);
+        TreeSet<String> sorted = new TreeSet<>();
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            sorted.add(buffer[i].substring(0, i % STRING_LENGTH));
+            assertEquals(trie.add(buffer[i].substring(0, i % STRING_LENGTH)), stressTree.add(buffer[i].substring(0, i % STRING_LENGTH)));
+        }
+
+        TrieImpl loaded = TrieImpl.fromSorted(sorted);
+        assertEquals(loaded.size(), trie.size());
+        assertEquals(loaded.nodeCount(), trie.nodeCount());
+        assertIterableEquals(loaded, sorted);
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            String prefix = buffer[i].substring(0, i % 5);
+            assertEquals(loaded.howManyStartsWithPrefix(prefix), stressTree.howManyStartsWithPrefix(prefix));
+            assertEquals(loaded.nextString(buffer[i], 3), stressTree.nextString(buffer[i], 3));
+        }
+    }
+
+    @Test
+    public void testFuzzyMatches() {
+        assertTrue(trie.add("car"));
+        assertTrue(trie.add("cart"));
+        assertTrue(trie.add("care"));
+        assertTrue(trie.add("cat"));
+        assertTrue(trie.add("dog"));
+        assertTrue(trie.add(""));
+        assertEquals(trie.fuzzyMatches("car", 0), List.of("car"));
+        assertEquals(trie.fuzzyMatches("car", 1), List.of("car", "care", "cart", "cat"));
+        assertEquals(trie.fuzzyMatches("cra", 1), List.of());
+        assertEquals(trie.fuzzyMatches("cra", 2), List.of("car", "care", "cart", "cat"));
+        assertEquals(trie.fuzzyMatches("", 0), List.of(""));
+        assertEquals(trie.fuzzyMatches("Dog", 1), List.of("dog"));
+        assertEquals(trie.fuzzyMatches("car", -1), List.of());
+    }
+
+    @Test
+    public void testStressFuzzyMatches() {
+        ArrayTrie fullScanTrie = new ArrayTrie();
+        Random random = new Random();
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int j = random.nextInt(6); j > 0; j--) {
+                stringBuilder.append((char) (random.nextInt(4) + 'a'));
+            }
+            assertEquals(trie.add(stringBuilder.toString()), fullScanTrie.add(stringBuilder.toString()));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int j = random.nextInt(6); j > 0; j--) {
+                stringBuilder.append((char) (random.nextInt(5) + 'a'));
+            }
+            int maxDistance = random.nextInt(3);
+            assertEquals(trie.fuzzyMatches(stringBuilder.toString(), maxDistance),
+                    fullScanTrie.fuzzyMatches(stringBuilder.toString(), maxDistance));
+        }
+    }
+
+    @Test
+    public void testRankAndSelect() {
+        assertTrue(trie.add(""));
+        assertTrue(trie.add("B"));
+        assertTrue(trie.add("a"));
+        assertTrue(trie.add("ab"));
+        assertTrue(trie.add("b"));
+        assertEquals(trie.rank(""), 0);
+        assertEquals(trie.rank("B"), 1);
+        assertEquals(trie.rank("aa"), 3);
+        assertEquals(trie.rank("a_"), 3);
+        assertEquals(trie.rank("z"), 5);
+        assertEquals(trie.select(0), "");
+        assertEquals(trie.select(3), "ab");
+        assertNull(trie.select(5));
+        assertNull(trie.select(-1));
+    }
+
+    @Test
+    public void testRange() {
+        assertTrue(trie.add("apple"));
+        assertTrue(trie.add("banana"));
+        assertTrue(trie.add("band"));
+        assertTrue(trie.add("bandana"));
+        assertTrue(trie.add("cherry"));
+        assertEquals(trie.countInRange("b", "c"), 3);
+        assertEquals(trie.countInRange("banana", "bandana"), 2);
+        assertEquals(trie.countInRange("c", "b"), 0);
+        assertEquals(trie.countInRange("", "zz"), 5);
+        assertEquals(toList(trie.rangeIterator("b", "c")), List.of("banana", "band", "bandana"));
+        assertEquals(toList(trie.rangeIterator("band", "band")), List.of());
+        assertEquals(toList(trie.rangeIterator("c", "b")), List.of());
+        assertThrows(NoSuchElementException.class, () -> trie.rangeIterator("x", "y").next());
+    }
+
+    @Test
+    public void testStressRange() {
+        TreeSet<String> expected = new TreeSet<>();
+        ArrayTrie defaultTrie = new ArrayTrie();
+        Random random = new Random();
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            String element = randomString(random, 5);
+            assertEquals(trie.add(element), expected.add(element));
+            defaultTrie.add(element);
+        }
+
+        List<String> sorted = new ArrayList<>(expected);
+        for (int i = 0; i < 200; i++) {
+            String from = randomString(random, 4);
+            String to = randomString(random, 4);
+            int count = from.compareTo(to) < 0 ? expected.subSet(from, to).size() : 0;
+            assertEquals(trie.rank(from), expected.headSet(from).size());
+            assertEquals(defaultTrie.rank(from), expected.headSet(from).size());
+            assertEquals(trie.countInRange(from, to), count);
+            assertEquals(defaultTrie.countInRange(from, to), count);
+            List<String> range = count == 0 ? List.of() : new ArrayList<>(expected.subSet(from, to));
+            assertEquals(toList(trie.rangeIterator(from, to)), range);
+            assertEquals(toList(defaultTrie.rangeIterator(from, to)), range);
+
+            int index = random.nextInt(sorted.size() + 1);
+            String element = index < sorted.size() ? sorted.get(index) : null;
+            assertEquals(trie.select(index), element);
+            assertEquals(defaultTrie.select(index), element);
+        }
+    }
+
+    @Test
+    public void testContainsEach() {
+        assertTrue(trie.add("ab"));
+        assertTrue(trie.add("abc"));
+        assertTrue(trie.add("b"));
+        assertArrayEquals(trie.containsEach(List.of("", "a", "ab", "abc", "abd", "a_c", "b", "abc")),
+                new boolean[]{false, false, true, true, false, false, true, true});
+        assertArrayEquals(trie.containsEach(List.of()), new boolean[0]);
+    }
+
+    @Test
+    public void testAddAll() {
+        assertTrue(trie.add("abc"));
+        TrieImpl snapshot = trie.snapshot();
+        assertEquals(trie.addAll(List.of("a", "ab", "abc", "abd", "ab", "b", "")), 5);
+        assertEquals(trie.size(), 6);
+        assertEquals(trie.howManyStartsWithPrefix("ab"), 3);
+        assertEquals(trie.nextString("", 1), "a");
+        assertEquals(trie.nodeCount(), trie.compact());
+        assertIterableEquals(snapshot, List.of("abc"));
+
+        assertThrows(IllegalArgumentException.class, () -> trie.addAll(List.of("c", "c1", "d")));
+        assertTrue(trie.contains("c"));
+        assertFalse(trie.contains("d"));
+        assertEquals(trie.size(), 7);
+        assertEquals(trie.nodeCount(), trie.compact());
+    }
+
+    @Test
+    public void testStressBatch() {
+        Random random = new Random();
+        List<String> batch = new ArrayList<>();
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            batch.add(randomString(random, 6));
+        }
+        List<String> sortedBatch = new ArrayList<>(batch);
+        Collections.sort(sortedBatch);
+
+        int added = 0;
+        for (String element : batch.subList(0, STRESS_TEST_SIZE / 2)) {
+            if (stressTree.add(element)) {
+                added++;
+            }
+        }
+        assertEquals(trie.addAll(batch.subList(0, STRESS_TEST_SIZE / 2)), added);
+        TrieImpl snapshot = trie.snapshot();
+        added = 0;
+        for (String element : sortedBatch) {
+            if (stressTree.add(element)) {
+                added++;
+            }
+        }
+        assertEquals(trie.addAll(sortedBatch), added);
+        assertEquals(trie.size(), stressTree.size());
+        assertEquals(trie.nodeCount(), trie.compact());
+
+        boolean[] contained = trie.containsEach(sortedBatch);
+        boolean[] containedBefore = snapshot.containsEach(batch);
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            assertTrue(contained[i]);
+            assertEquals(containedBefore[i], snapshot.contains(batch.get(i)));
+            String prefix = batch.get(i).substring(0, batch.get(i).length() / 2);
+            assertEquals(trie.howManyStartsWithPrefix(prefix), stressTree.howManyStartsWithPrefix(prefix));
+        }
+    }
+
+    @Test
+    public void testStats() {
+        TrieStats stats = trie.stats();
+        assertEquals(stats.nodeCount(), 1);
+        assertEquals(stats.terminalCount(), 0);
+        assertEquals(stats.averageFanOut(), 0.0);
+        assertArrayEquals(stats.depthHistogram(), new int[]{1});
+        assertEquals(stats.estimatedBytes(), 40L);
+
+        assertTrue(trie.add("ab"));
+        assertTrue(trie.add("ac"));
+        stats = trie.stats();
+        assertSame(trie.stats(), stats);
+        assertEquals(stats.nodeCount(), 4);
+        assertEquals(stats.terminalCount(), 2);
+        assertEquals(stats.averageFanOut(), 1.5);
+        assertArrayEquals(stats.depthHistogram(), new int[]{1, 1, 2});
+        assertEquals(stats.estimatedBytes(), 4 * 40L + 24 + 24);
+
+        assertFalse(trie.remove("a"));
+        assertSame(trie.stats(), stats);
+        assertTrue(trie.remove("ab"));
+        assertNotSame(trie.stats(), stats);
+        assertArrayEquals(trie.stats().depthHistogram(), new int[]{1, 1, 1});
+    }
+
+    @Test
+    public void testStressStats() {
+        generateRandomStrings(STRESS_TEST_SIZE);
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            trie.add(buffer[i].substring(0, i % STRING_LENGTH));
+        }
+        for (int i = 0; i < STRESS_TEST_SIZE; i += 3) {
+            trie.remove(buffer[i].substring(0, i % STRING_LENGTH));
+        }
+
+        TrieStats stats = trie.stats();
+        assertEquals(stats.nodeCount(), trie.nodeCount());
+        assertEquals(stats.terminalCount(), trie.size());
+        assertEquals(Arrays.stream(stats.depthHistogram()).sum(), trie.nodeCount());
+        assertEquals(stats.depthHistogram().length, STRING_LENGTH);
+        assertEquals(stats.depthHistogram()[1], 26);
+        assertTrue(stats.averageFanOut() >= 1);
+        assertTrue(stats.estimatedBytes() > 40L * trie.nodeCount());
+    }
+
     @Test
     public void testStressAdd() {
         generateRandomStrings(STRESS_TEST_SIZE);
@@ -363,6 +934,28 @@ public class TrieTest {
         }
     }
 
+    @Test
+    public void testStressNextStringMixedCase() {
+        Random random = new Random();
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int j = random.nextInt(5); j > 0; j--) {
+                stringBuilder.append((char) (random.nextInt(26) + (random.nextBoolean() ? 'a' : 'A')));
+            }
+            assertEquals(trie.add(stringBuilder.toString()), stressTree.add(stringBuilder.toString()));
+        }
+
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int j = random.nextInt(5); j > 0; j--) {
+                stringBuilder.append((char) (random.nextInt(26) + (random.nextBoolean() ? 'a' : 'A')));
+            }
+            int k = random.nextInt(20);
+            assertEquals(trie.nextString(stringBuilder.toString(), k),
+                    stressTree.nextString(stringBuilder.toString(), k));
+        }
+    }
+
     @Test
     public void testTimeLimitAdd() {
         generateRandomStrings(TIME_TEST_SIZE);
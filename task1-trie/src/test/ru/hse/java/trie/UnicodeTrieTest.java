@@ -0,0 +1,122 @@
+package ru.hse.java.trie;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+public class UnicodeTrieTest {
+
+    private UnicodeTrie trie;
+
+    private static final int STRING_LENGTH = 6;
+    private static final int STRESS_TEST_SIZE = 10_000;
+
+    private static final int[] CODE_POINTS = {'a', 'b', 'c', 'а', 'б', 'в', '日', '日' + 1, 0x1F600, 0x1F601, 0xFFFD};
+
+    private static final Comparator<String> BY_CODE_POINTS =
+            (first, second) -> Arrays.compare(first.codePoints().toArray(), second.codePoints().toArray());
+
+    @BeforeEach
+    public void beforeEachTest() {
+        trie = new UnicodeTrie();
+    }
+
+    @Test
+    public void testAddAndContains() {
+        assertTrue(trie.add("привет"));
+        assertTrue(trie.add("日本語"));
+        assertTrue(trie.add("a_b 1"));
+        assertTrue(trie.add("😀"));
+        assertTrue(trie.add(""));
+        assertFalse(trie.add("привет"));
+        assertEquals(trie.size(), 5);
+        assertTrue(trie.contains("日本語"));
+        assertTrue(trie.contains("😀"));
+        assertTrue(trie.contains(""));
+        assertFalse(trie.contains("日本"));
+        assertFalse(trie.contains("при"));
+    }
+
+    @Test
+    public void testUnpairedSurrogates() {
+        assertThrows(IllegalArgumentException.class, () -> trie.add("a\uD83D"));
+        assertThrows(IllegalArgumentException.class, () -> trie.add("\uDE00a"));
+        assertThrows(IllegalArgumentException.class, () -> trie.nextString("\uD83D", 1));
+        assertEquals(trie.size(), 0);
+        assertFalse(trie.contains("a\uD83D"));
+        assertFalse(trie.remove("a\uD83D"));
+        assertEquals(trie.howManyStartsWithPrefix("\uD83D"), 0);
+    }
+
+    @Test
+    public void testHowManyStartsWithPrefix() {
+        assertTrue(trie.add("привет"));
+        assertTrue(trie.add("пример"));
+        assertTrue(trie.add("пока"));
+        assertTrue(trie.add("hello"));
+        assertEquals(trie.howManyStartsWithPrefix(""), 4);
+        assertEquals(trie.howManyStartsWithPrefix("п"), 3);
+        assertEquals(trie.howManyStartsWithPrefix("при"), 2);
+        assertEquals(trie.howManyStartsWithPrefix("h"), 1);
+        assertEquals(trie.howManyStartsWithPrefix("ж"), 0);
+    }
+
+    @Test
+    public void testOrderByCodePoints() {
+        assertTrue(trie.add("\uFFFD"));
+        assertTrue(trie.add("😀"));
+        assertTrue(trie.add("z"));
+        assertTrue(trie.add("я"));
+        assertIterableEquals(trie, List.of("z", "я", "\uFFFD", "😀"));
+        assertEquals(trie.nextString("z", 2), "\uFFFD");
+        assertEquals(trie.nextString("\uFFFD", 1), "😀");
+        assertNull(trie.nextString("😀", 1));
+    }
+
+    @Test
+    public void testWideNodeGrowsAndShrinks() {
+        for (char symbol = ' '; symbol <= '~'; symbol++) {
+            assertTrue(trie.add(String.valueOf(symbol)));
+        }
+        assertEquals(trie.howManyStartsWithPrefix(""), '~' - ' ' + 1);
+        assertEquals(trie.nextString("A", 3), "D");
+        for (char symbol = ' '; symbol < '~'; symbol += 2) {
+            assertTrue(trie.remove(String.valueOf(symbol)));
+        }
+        for (char symbol = '!'; symbol < 'x'; symbol += 2) {
+            assertTrue(trie.remove(String.valueOf(symbol)));
+        }
+        assertIterableEquals(trie, List.of("y", "{", "}", "~"));
+        assertTrue(trie.add("|"));
+        assertEquals(trie.nextString("y", 2), "|");
+        assertEquals(trie.howManyStartsWithPrefix("}"), 1);
+    }
+
+    @Test
+    public void testStressAgainstTreeSet() {
+        Random random = new Random();
+        TreeSet<String> expected = new TreeSet<>(BY_CODE_POINTS);
+        String[] buffer = TrieStressTests.generateRandomStrings(STRESS_TEST_SIZE, STRING_LENGTH, CODE_POINTS);
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            if (random.nextInt(3) == 0) {
+                assertEquals(trie.remove(buffer[i]), expected.remove(buffer[i]));
+            } else {
+                assertEquals(trie.add(buffer[i]), expected.add(buffer[i]));
+            }
+        }
+
+        assertEquals(trie.size(), expected.size());
+        assertIterableEquals(trie, expected);
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            assertEquals(trie.contains(buffer[i]), expected.contains(buffer[i]));
+            int codePoints = buffer[i].codePointCount(0, buffer[i].length());
+            String prefix = buffer[i].substring(0, buffer[i].offsetByCodePoints(0, codePoints / 2));
+            assertEquals(trie.howManyStartsWithPrefix(prefix),
+                    (int) expected.stream().filter(element -> element.startsWith(prefix)).count());
+            String next = expected.higher(prefix);
+            assertEquals(trie.nextString(prefix, 1), next);
+        }
+    }
+}
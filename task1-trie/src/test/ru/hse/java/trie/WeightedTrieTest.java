@@ -0,0 +1,117 @@
+package ru.hse.java.trie;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class WeightedTrieTest {
+
+    private WeightedTrie trie;
+
+    private static final int STRING_LENGTH = 5;
+    private static final int STRESS_TEST_SIZE = 5_000;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        trie = new WeightedTrie();
+    }
+
+    @Test
+    public void testAddAndScore() {
+        assertTrue(trie.add("abc", 5));
+        assertTrue(trie.add("ab"));
+        assertFalse(trie.add("abc", 7));
+        assertEquals(trie.size(), 2);
+        assertEquals(trie.getScore("abc"), 7L);
+        assertEquals(trie.getScore("ab"), 0L);
+        assertNull(trie.getScore("a"));
+    }
+
+    @Test
+    public void testAddWithoutScoreKeepsScore() {
+        assertTrue(trie.add("abc", 100));
+        assertTrue(trie.add("abd", 50));
+        assertFalse(trie.add("abc"));
+        assertEquals(trie.size(), 2);
+        assertEquals(trie.getScore("abc"), 100L);
+        assertEquals(trie.topCompletions("ab", 1), List.of("abc"));
+        assertTrue(trie.add("ab"));
+        assertEquals(trie.getScore("ab"), 0L);
+        assertEquals(trie.topCompletions("a", 3), List.of("abc", "abd", "ab"));
+    }
+
+    @Test
+    public void testTopCompletions() {
+        assertTrue(trie.add("car", 10));
+        assertTrue(trie.add("cart", 30));
+        assertTrue(trie.add("care", 20));
+        assertTrue(trie.add("cat", 20));
+        assertTrue(trie.add("dog", 100));
+        assertEquals(trie.topCompletions("ca", 3), List.of("cart", "care", "cat"));
+        assertEquals(trie.topCompletions("car", 10), List.of("cart", "care", "car"));
+        assertEquals(trie.topCompletions("", 1), List.of("dog"));
+        assertEquals(trie.topCompletions("x", 1), List.of());
+        assertEquals(trie.topCompletions("ca", 0), List.of());
+    }
+
+    @Test
+    public void testTopCompletionsAfterRemoveAndRescore() {
+        assertTrue(trie.add("car", 10));
+        assertTrue(trie.add("cart", 30));
+        assertTrue(trie.add("care", 20));
+        assertTrue(trie.remove("cart"));
+        assertEquals(trie.topCompletions("c", 1), List.of("care"));
+        assertFalse(trie.add("car", 40));
+        assertEquals(trie.topCompletions("c", 2), List.of("car", "care"));
+        assertFalse(trie.add("car", 1));
+        assertEquals(trie.topCompletions("c", 2), List.of("care", "car"));
+    }
+
+    @Test
+    public void testCompletionsAreLexicographic() {
+        assertTrue(trie.add("b", 3));
+        assertTrue(trie.add("ab", 1));
+        assertTrue(trie.add("a", 2));
+        assertTrue(trie.add("abc", 0));
+        assertEquals(trie.completions("", 10), List.of("a", "ab", "abc", "b"));
+        assertEquals(trie.completions("ab", 1), List.of("ab"));
+    }
+
+    @Test
+    public void testStressTopCompletions() {
+        Random random = new Random();
+        Map<String, Long> scores = new HashMap<>();
+        for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int j = random.nextInt(STRING_LENGTH) + 1; j > 0; j--) {
+                stringBuilder.append((char) (random.nextInt(4) + 'a'));
+            }
+            String element = stringBuilder.toString();
+            if (random.nextInt(4) == 0) {
+                assertEquals(trie.remove(element), scores.remove(element) != null);
+            } else {
+                long score = random.nextInt(100);
+                assertEquals(trie.add(element, score), scores.put(element, score) == null);
+            }
+        }
+
+        assertEquals(trie.size(), scores.size());
+        for (String prefix : List.of("", "a", "ab", "bcd", "dd")) {
+            List<String> expected = scores.keySet().stream()
+                    .filter(element -> element.startsWith(prefix))
+                    .sorted(Comparator.comparing((String element) -> -scores.get(element))
+                            .thenComparing(Comparator.naturalOrder()))
+                    .limit(10)
+                    .collect(Collectors.toList());
+            assertEquals(trie.topCompletions(prefix, 10), expected);
+        }
+    }
+
+    @Test
+    public void testStressAgainstTreeSet() {
+        TrieStressTests.testStressAgainstTreeSet(WeightedTrie::new);
+    }
+}
@@ -1,6 +1,7 @@
 plugins {
     java
     application
+    id("me.champeau.jmh") version "0.6.8"
 }
 
 group = "org.example"
@@ -25,6 +26,9 @@ java {
         test {
             java.setSrcDirs(listOf("src/test"))
         }
+        named("jmh") {
+            java.setSrcDirs(listOf("src/jmh"))
+        }
     }
 }
 
@@ -35,3 +39,9 @@ tasks.compileJava {
 tasks.test {
     useJUnitPlatform()
 }
+
+jmh {
+    jmhVersion.set("1.35")
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
@@ -0,0 +1,196 @@
+package ru.hse.java.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares Dictionary implementations with java.util.HashMap on the hot operations
+ * for keys with cheap and with expensive equals.
+ * Run with <tt>gradle jmh</tt>, results are written to build/results/jmh/results.json.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DictionaryBenchmark {
+
+    private static final int OPERATIONS = 1000;
+    private static final String COMMON_PREFIX = "ru.hse.java.util.DictionaryBenchmark.key.";
+
+    /**
+     * Types of keys
+     */
+    public enum KeyType {
+        /**
+         * Integer, hashCode and equals are cheap
+         */
+        INTEGER,
+        /**
+         * String with a long common prefix, so equals compares the prefix every time
+         */
+        STRING,
+        /**
+         * CompositeKey, equals compares its parts before the one which differs
+         */
+        COMPOSITE
+    }
+
+    /**
+     * Key of several parts where keys differ only in the last one, like a key of a database row
+     */
+    static final class CompositeKey {
+        private final String namespace;
+        private final int[] path;
+        private final long id;
+        private final int hash;
+
+        CompositeKey(String namespace, int[] path, long id) {
+            this.namespace = namespace;
+            this.path = path;
+            this.id = id;
+            this.hash = 31 * (31 * namespace.hashCode() + Arrays.hashCode(path)) + Long.hashCode(id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CompositeKey)) return false;
+            CompositeKey key = (CompositeKey) o;
+            return namespace.equals(key.namespace) && Arrays.equals(path, key.path) && id == key.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Param({"DictionaryImpl", "RobinHoodDictionary", "HashMap"})
+    private String implementation;
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"INTEGER", "STRING", "COMPOSITE"})
+    private KeyType keyType;
+
+    private Object[] keys;
+    private Object[] missingKeys;
+    private Map<Object, Object> map;
+    private Map<Object, Object> growingMap;
+    private int position = 0;
+    private int growingPosition = 0;
+
+    static <K, V> Supplier<Map<K, V>> factory(String implementation) {
+        switch (implementation) {
+            case "DictionaryImpl":
+                return DictionaryImpl::new;
+            case "RobinHoodDictionary":
+                return RobinHoodDictionary::new;
+            case "HashMap":
+                return HashMap::new;
+            default:
+                throw new IllegalArgumentException("Unknown map implementation: " + implementation);
+        }
+    }
+
+    /**
+     * Every call makes a new key, so a lookup by an equal key does the full comparison on a hit
+     */
+    static Object makeKey(KeyType keyType, int id) {
+        switch (keyType) {
+            case INTEGER:
+                return id;
+            case STRING:
+                return COMMON_PREFIX + id;
+            case COMPOSITE:
+                return new CompositeKey(new String(COMMON_PREFIX), new int[]{1, 2, 3, 4, 5, 6, 7, 8}, id);
+            default:
+                throw new IllegalArgumentException("Unknown key type: " + keyType);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        keys = new Object[size];
+        missingKeys = new Object[size];
+        map = DictionaryBenchmark.factory(implementation).get();
+        for (int i = 0; i < size; i++) {
+            // even ids are stored, odd ids are missing
+            int id = random.nextInt(Integer.MAX_VALUE) & ~1;
+            map.put(makeKey(keyType, id), i);
+            keys[i] = makeKey(keyType, id);
+            missingKeys[i] = makeKey(keyType, id + 1);
+        }
+    }
+
+    private int nextPosition() {
+        position = position + 1 == size ? 0 : position + 1;
+        return position;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public Map<Object, Object> putNew() {
+        Map<Object, Object> freshMap = DictionaryBenchmark.factory(implementation).get();
+        for (int i = 0; i < OPERATIONS; i++) {
+            freshMap.put(keys[i % size], i);
+        }
+        return freshMap;
+    }
+
+    /**
+     * Fills a map from empty to size keys one put at a time, then starts again.
+     * Sampling shows the latency distribution of put including the puts which resize the table
+     * and the puts which move keys of the old table, see the p0.99 and p0.999 rows of the result.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public Object putGrowing() {
+        if (growingPosition == 0) {
+            growingMap = DictionaryBenchmark.factory(implementation).get();
+        }
+        int pos = growingPosition;
+        growingPosition = growingPosition + 1 == size ? 0 : growingPosition + 1;
+        return growingMap.put(keys[pos], pos);
+    }
+
+    /**
+     * Overwrites the value of a stored key, with <tt>-prof gc</tt> this shows allocations of put
+     */
+    @Benchmark
+    public Object putExisting() {
+        int pos = nextPosition();
+        return map.put(keys[pos], pos);
+    }
+
+    @Benchmark
+    public Object getHit() {
+        return map.get(keys[nextPosition()]);
+    }
+
+    @Benchmark
+    public Object getMiss() {
+        return map.get(missingKeys[nextPosition()]);
+    }
+
+    /**
+     * Removes a stored key and puts it back, so the map does not change
+     */
+    @Benchmark
+    public Object removeAndPut() {
+        Object key = keys[nextPosition()];
+        Object value = map.remove(key);
+        map.put(key, value);
+        return value;
+    }
+}
@@ -62,13 +62,13 @@ public class Cell<K, V> implements Map.Entry<K, V> {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Cell<?, ?> cell = (Cell<?, ?>) o;
-        return Objects.equals(key, cell.key) && Objects.equals(value, cell.value);
+        if (!(o instanceof Map.Entry)) return false;
+        Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+        return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(key, value);
+        return Objects.hashCode(key) ^ Objects.hashCode(value);
     }
 }
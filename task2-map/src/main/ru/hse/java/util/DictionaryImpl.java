@@ -5,44 +5,328 @@ import org.jetbrains.annotations.NotNull;
 import java.util.*;
 import java.util.function.Function;
 
+/*
+ * Чтения (get, containsKey, containsValue, обход, stats и probeLengths) не меняют таблицу, в том числе во время переноса,
+ * поэтому их можно вызывать из нескольких потоков, пока словарь никто не меняет
+ */
 public class DictionaryImpl<K, V> implements Dictionary<K, V> {
-    private static final int DEFAULT_CAPACITY = 20;
+    private static final int DEFAULT_CAPACITY = 32;
     private static final double DEFAULT_UP_FACTOR = 0.666;
     private static final double DEFAULT_DOWN_FACTOR = 0.166;
 
+    /*
+     * Наименьшее кол-во ячеек старой таблицы, которое переносится в новую в пересчёте на одну операцию
+     */
+    private static final int MIGRATION_STEP = 32;
+
+    /*
+     * Раз во сколько put и remove делается шаг переноса. Перенос ключа -- это промахи кеша
+     * по всем массивам новой таблицы, поэтому шаг в каждой операции замедлил бы заметную долю
+     * операций. Шаги раз в MIGRATION_PERIOD операций достаются меньше чем одному проценту из них,
+     * и почти не сдвигают p99, а время одного шага ограничено
+     */
+    private static final int MIGRATION_PERIOD = 256;
+
+    /*
+     * Таблица хранится кусками по CHUNK_SIZE ячеек
+     */
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /*
+     * Состояния ячеек таблицы
+     */
+    private static final byte EMPTY = 0;
+    private static final byte EXISTS = 1;
+    private static final byte DELETED = 2;
+
     private final double upFactor;
     private final double downFactor;
     private int size = 0;
-    private int capacity;
-    private ArrayList<Cell<K, V>> table;
+
+    /*
+     * Количество ячеек DELETED в table. Они удлиняют цепочки так же, как ключи,
+     * поэтому считаются в заполненности таблицы
+     */
+    private int deleted = 0;
+
+    /*
+     * Сколько раз менялась ёмкость и сколько раз таблица перестраивалась с той же ёмкостью
+     */
+    private int resizeCount = 0;
+    private int rehashCount = 0;
+
+    private Table table;
+
+    /*
+     * Старая таблица, пока resize переносит из неё ключи. Каждый migrationPeriod-й put или remove
+     * переносит не меньше migrationStep ячеек, поэтому resize не останавливает словарь на время
+     * перестроения всей таблицы. Чтения ищут ключ в обеих таблицах и ничего не переносят.
+     * Каждый ключ лежит ровно в одной из таблиц, на месте перенесённого ключа остаётся DELETED,
+     * чтобы не рвать цепочки старой таблицы. Если перенос закончен, oldTable == null
+     */
+    private Table oldTable;
+    private int migrationStep;
+    private int migrationPeriod;
+    private int operationsUntilStep;
+
+    /*
+     * Перенос идёт по кругу от пустой ячейки migrationStart, migrated -- сколько ячеек уже пройдено.
+     * Шаг переноса останавливается только перед пустой ячейкой, поэтому пройденная часть состоит
+     * из целых цепочек. Ключ лежит в одной цепочке со своей ячейкой hash & mask, так что если
+     * она пройдена, ключа в старой таблице нет, и поиск обходится без второй пробы
+     */
+    private int migrationStart;
+    private int migrated;
+
+    /*
+     * Хеш-таблица с линейным пробированием. Ёмкость всегда степень двойки, поэтому номер ячейки --
+     * это hash & mask, без деления.
+     * Ячейки хранятся в параллельных массивах: i-я ячейка -- это keys, values, hashes и states
+     * с индексом i & CHUNK_MASK в куске i >>> CHUNK_SHIFT, поэтому проход по цепочке читает подряд
+     * лежащую память, а put не создаёт объектов. В hashes лежит перемешанный хеш ключа: equals
+     * вызывается только при совпадении хешей, а перенос ключей не пересчитывает hashCode.
+     * Кусок создаётся при первой записи в него, а его отсутствие означает пустые ячейки, поэтому
+     * resize не выделяет и не обнуляет сразу всю новую таблицу: её память выделяется по куску
+     * за раз во время переноса
+     */
+    private static final class Table {
+        private final int capacity;
+        private final int mask;
+        private final int chunkSize;
+        private final Object[][] keys;
+        private final Object[][] values;
+        private final int[][] hashes;
+        private final byte[][] states;
+
+        private Table(int capacity) {
+            this.capacity = capacity;
+            mask = capacity - 1;
+            chunkSize = Math.min(capacity, CHUNK_SIZE);
+            int chunks = capacity / chunkSize;
+            keys = new Object[chunks][];
+            values = new Object[chunks][];
+            hashes = new int[chunks][];
+            states = new byte[chunks][];
+        }
+
+        private byte stateAt(int index) {
+            byte[] chunk = states[index >>> CHUNK_SHIFT];
+            return chunk == null ? EMPTY : chunk[index & CHUNK_MASK];
+        }
+
+        /*
+         * keyAt, valueAt и hashAt читают только ячейки, которые не EMPTY, поэтому их кусок уже создан
+         */
+        private Object keyAt(int index) {
+            return keys[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        }
+
+        private Object valueAt(int index) {
+            return values[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        }
+
+        private int hashAt(int index) {
+            return hashes[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        }
+
+        private void setValueAt(int index, Object value) {
+            values[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = value;
+        }
+
+        /*
+         * Кладёт ключ в ячейку EMPTY или DELETED
+         */
+        private void fill(int index, Object key, Object value, int hash) {
+            int chunk = index >>> CHUNK_SHIFT;
+            if (states[chunk] == null) {
+                keys[chunk] = new Object[chunkSize];
+                values[chunk] = new Object[chunkSize];
+                hashes[chunk] = new int[chunkSize];
+                states[chunk] = new byte[chunkSize];
+            }
+            int offset = index & CHUNK_MASK;
+            keys[chunk][offset] = key;
+            values[chunk][offset] = value;
+            hashes[chunk][offset] = hash;
+            states[chunk][offset] = EXISTS;
+        }
+
+        /*
+         * Освобождает ячейку ключа, ссылки на ключ и значение не удерживаются
+         */
+        private void clear(int index) {
+            int chunk = index >>> CHUNK_SHIFT;
+            int offset = index & CHUNK_MASK;
+            keys[chunk][offset] = null;
+            values[chunk][offset] = null;
+            states[chunk][offset] = DELETED;
+        }
+
+        /*
+         * Индекс ячейки с ключом key, либо -1, если такого ключа нет
+         */
+        private int find(Object key, int hash) {
+            int index = hash & mask;
+            for (int i = 0; i < capacity; i++) {
+                byte state = stateAt(index);
+                if (state == EMPTY) {
+                    return -1;
+                }
+                if (state == EXISTS && hashAt(index) == hash && Objects.equals(keyAt(index), key)) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private boolean containsValue(Object value) {
+            for (int i = 0; i < capacity; i++) {
+                if (stateAt(i) == EXISTS && Objects.equals(valueAt(i), value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 
     public DictionaryImpl() {
         this(DEFAULT_CAPACITY, DEFAULT_UP_FACTOR, DEFAULT_DOWN_FACTOR);
     }
 
     public DictionaryImpl(int capacity, double upFactor, double downFactor) {
-        this.capacity = capacity;
         this.upFactor = upFactor;
         this.downFactor = downFactor;
-        table = new ArrayList<>(Collections.nCopies(capacity, new Cell<>()));
+        table = new Table(tableSizeFor(capacity));
     }
 
-    private void resize(int capacity) {
-        this.capacity = capacity;
-        size = 0;
-        ArrayList<Cell<K, V>> oldTable = table;
+    /*
+     * Наименьшая степень двойки, не меньшая capacity
+     */
+    private static int tableSizeFor(int capacity) {
+        return Math.max(1, Integer.highestOneBit(Math.max(capacity - 1, 0)) << 1);
+    }
 
-        table = new ArrayList<>(Collections.nCopies(capacity, new Cell<>()));
+    private boolean isMigrating() {
+        return oldTable != null;
+    }
+
+    /*
+     * Заводит новую таблицу и начинает переносить в неё ключи, предыдущий перенос сначала заканчивается.
+     * Шаги переноса выбираются так, чтобы перенос закончился раньше, чем put или remove дойдут
+     * до следующего resize: put увеличивает size + deleted не больше чем на один, а remove уменьшает
+     * size на один. Тогда старая таблица переносится целиком только при вырожденных коэффициентах
+     */
+    private void resize(int capacity) {
+        finishMigration();
+        if (capacity == table.capacity) {
+            rehashCount++;
+        } else {
+            resizeCount++;
+        }
+        oldTable = table;
+        // пустая ячейка есть всегда, кроме таблицы без EMPTY, которую перенос пройдёт целиком за раз
+        migrationStart = 0;
+        while (migrationStart < oldTable.capacity && oldTable.stateAt(migrationStart) != EMPTY) {
+            migrationStart++;
+        }
+        migrationStart &= oldTable.mask;
+        migrated = 0;
+        table = new Table(capacity);
+        deleted = 0;
+
+        long untilGrowth = (long) (upFactor * capacity) - size;
+        long untilShrink = capacity > DEFAULT_CAPACITY ? size - (long) (downFactor * capacity) : Long.MAX_VALUE;
+        long operations = Math.max(1, Math.min(untilGrowth, untilShrink));
+        // до следующего resize будет не меньше steps шагов
+        migrationPeriod = (int) Math.max(1, Math.min(MIGRATION_PERIOD, operations / 2));
+        long steps = operations / migrationPeriod;
+        long step = Math.max((long) MIGRATION_STEP * migrationPeriod, (oldTable.capacity + steps - 1) / steps);
+        migrationStep = (int) Math.min(oldTable.capacity, step);
+        operationsUntilStep = migrationPeriod;
+    }
 
-        for (Cell<K, V> element : oldTable) {
-            if (element.isExists()) {
-                put(element.getKey(), element.getValue());
+    /*
+     * Переносит в новую таблицу следующие slots ячеек старой и остаток последней цепочки
+     */
+    private void migrate(int slots) {
+        int end = (int) Math.min(oldTable.capacity, (long) migrated + slots);
+        for (; migrated < oldTable.capacity; migrated++) {
+            int oldIndex = (migrationStart + migrated) & oldTable.mask;
+            byte state = oldTable.stateAt(oldIndex);
+            if (migrated >= end && state == EMPTY) {
+                break;
             }
+            if (state == EXISTS) {
+                int hash = oldTable.hashAt(oldIndex);
+                int index = hash & table.mask;
+                while (table.stateAt(index) == EXISTS) {
+                    index = (index + 1) & table.mask;
+                }
+                if (table.stateAt(index) == DELETED) {
+                    deleted--;
+                }
+                table.fill(index, oldTable.keyAt(oldIndex), oldTable.valueAt(oldIndex), hash);
+                oldTable.clear(oldIndex);
+            }
+        }
+        if (migrated == oldTable.capacity) {
+            oldTable = null;
         }
     }
 
-    private int getHash(Object key) {
-        return key == null ? 0 : ((key.hashCode() % capacity) + capacity) % capacity;
+    private void finishMigration() {
+        if (isMigrating()) {
+            migrate(oldTable.capacity);
+        }
+    }
+
+    /*
+     * Отсчитывает put и remove до следующего шага переноса
+     */
+    private void migrateStep() {
+        if (isMigrating() && --operationsUntilStep == 0) {
+            operationsUntilStep = migrationPeriod;
+            migrate(migrationStep);
+        }
+    }
+
+    /*
+     * Старшие биты hashCode примешиваются к младшим, так как номер ячейки берётся по маске
+     */
+    private static int getHash(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private int findOld(Object key, int hash) {
+        if (!isMigrating() || ((hash - migrationStart) & oldTable.mask) < migrated) {
+            return -1;
+        }
+        return oldTable.find(key, hash);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(Table table, int index) {
+        return (V) table.valueAt(index);
+    }
+
+    /*
+     * Удалённые ячейки старой таблицы не считаются в deleted, таблица всё равно будет выброшена
+     */
+    private V removeAt(Table table, int index) {
+        V oldValue = valueAt(table, index);
+        table.clear(index);
+        size--;
+        if (table == this.table) {
+            deleted++;
+        }
+        return oldValue;
     }
 
     @Override
@@ -58,89 +342,94 @@ public class DictionaryImpl<K, V> implements Dictionary<K, V> {
     @Override
     public boolean containsKey(Object key) {
         int hash = getHash(key);
-        for (int i = hash; i < capacity + hash; i++) {
-            int index = i < capacity ? i : i - capacity;
-            if (table.get(index).isEmpty()) {
-                return false;
-            }
-            if (Objects.equals(table.get(index).getKey(), key)
-                    && !table.get(index).isDeleted()) {
-                return true;
-            }
-        }
-        return false;
+        return table.find(key, hash) >= 0 || findOld(key, hash) >= 0;
     }
 
     @Override
     public boolean containsValue(Object o) {
-        for (int i = 0; i < capacity; i++) {
-            if (table.get(i).isExists() &&
-                    Objects.equals(table.get(i).getValue(), o)) {
-                return true;
-            }
-        }
-        return false;
+        return table.containsValue(o) || isMigrating() && oldTable.containsValue(o);
     }
 
     @Override
     public V get(Object key) {
         int hash = getHash(key);
-        for (int i = hash; i < capacity + hash; i++) {
-            int index = i < capacity ? i : i - capacity;
-            if (table.get(index).isEmpty()) {
-                return null;
-            }
-            if (Objects.equals(table.get(index).getKey(), key)
-                    && !table.get(index).isDeleted()) {
-                return table.get(index).getValue();
-            }
+        int index = table.find(key, hash);
+        if (index >= 0) {
+            return valueAt(table, index);
         }
-        return null;
+        index = findOld(key, hash);
+        return index < 0 ? null : valueAt(oldTable, index);
     }
 
     @Override
     public V put(K key, V value) {
-        if (size > upFactor * capacity) {
-            resize(capacity * 2);
+        migrateStep();
+        if (size > upFactor * table.capacity) {
+            resize(table.capacity * 2);
+        } else if (size + deleted > upFactor * table.capacity) {
+            /*
+             * Таблицу заполнили удалённые ячейки. Если ключей мало, их достаточно переложить
+             * без DELETED, иначе таблица расширяется, чтобы перестроение не повторялось
+             * через несколько удалений
+             */
+            resize(size > upFactor * table.capacity / 2 ? table.capacity * 2 : table.capacity);
         }
         int hash = getHash(key);
-        for (int i = hash; i < capacity + hash; i++) {
-            int index = i < capacity ? i : i - capacity;
-            if (table.get(index).isExists() &&
-                    !Objects.equals(table.get(index).getKey(), key)) {
-                continue;
-            }
+        int oldIndex = findOld(key, hash);
+        if (oldIndex >= 0) {
+            V oldValue = valueAt(oldTable, oldIndex);
+            oldTable.setValueAt(oldIndex, value);
+            return oldValue;
+        }
 
-            if (!table.get(index).isExists()) {
-                size++;
+        int index = hash & table.mask;
+        int freeIndex = -1;
+        for (int i = 0; i < table.capacity; i++) {
+            byte state = table.stateAt(index);
+            if (state == EMPTY) {
+                if (freeIndex < 0) {
+                    freeIndex = index;
+                }
+                break;
+            }
+            if (state == DELETED) {
+                if (freeIndex < 0) {
+                    freeIndex = index;
+                }
+            } else if (table.hashAt(index) == hash && Objects.equals(table.keyAt(index), key)) {
+                V oldValue = valueAt(table, index);
+                table.setValueAt(index, value);
+                return oldValue;
             }
+            index = (index + 1) & table.mask;
+        }
 
-            Cell<K, V> oldCell = table.get(index);
-            table.set(index, new Cell<>(key, value));
-            return oldCell == null || oldCell.isDeleted()
-                    ? null : oldCell.getValue();
+        if (freeIndex < 0) {
+            resize(table.capacity * 2);
+            return put(key, value);
+        }
+        if (table.stateAt(freeIndex) == DELETED) {
+            deleted--;
         }
+        table.fill(freeIndex, key, value, hash);
+        size++;
         return null;
     }
 
     @Override
     public V remove(Object key) {
-        if (size < downFactor * capacity) {
-            resize(capacity / 2);
+        migrateStep();
+        // новая таблица должна вместить все ключи старой
+        if (size < downFactor * table.capacity && table.capacity > DEFAULT_CAPACITY && size < table.capacity / 2) {
+            resize(table.capacity / 2);
         }
         int hash = getHash(key);
-        for (int i = hash; i < capacity + hash; i++) {
-            int index = i < capacity ? i : i - capacity;
-            if (!table.get(index).isExists()) {
-                return null;
-            }
-            if (Objects.equals(table.get(index).getKey(), key)) {
-                size--;
-                table.get(index).setStateDeleted();
-                return table.get(index).getValue();
-            }
+        int index = table.find(key, hash);
+        if (index >= 0) {
+            return removeAt(table, index);
         }
-        return null;
+        index = findOld(key, hash);
+        return index < 0 ? null : removeAt(oldTable, index);
     }
 
     @Override
@@ -153,38 +442,137 @@ public class DictionaryImpl<K, V> implements Dictionary<K, V> {
     @Override
     public void clear() {
         size = 0;
-        capacity = DEFAULT_CAPACITY;
-        table = new ArrayList<>(Collections.nCopies(capacity, new Cell<>()));
+        deleted = 0;
+        oldTable = null;
+        table = new Table(DEFAULT_CAPACITY);
+    }
+
+    /*
+     * Заполненность таблицы и состояние переноса, чтобы замечать её деградацию.
+     * Все числа хранятся в полях, поэтому работает за O(1) и её можно опрашивать часто
+     */
+    public DictionaryStats stats() {
+        int pendingMigration = isMigrating() ? oldTable.capacity - migrated : 0;
+        return new DictionaryStats(size, table.capacity, deleted, resizeCount, rehashCount,
+                pendingMigration, isMigrating() ? migrationStep : 0);
+    }
+
+    /*
+     * Длины проб всех ключей. Проходит по всей таблице, то есть работает за O(ёмкости).
+     * Пока идёт перенос, длины проб считаются в той таблице, где лежит ключ
+     */
+    public ProbeLengths probeLengths() {
+        int maxProbeLength = 0;
+        long totalProbeLength = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            Table probed = pass == 0 ? table : oldTable;
+            for (int i = 0; probed != null && i < probed.capacity; i++) {
+                if (probed.stateAt(i) == EXISTS) {
+                    // ячейки от hash & mask до i, которые проходит поиск ключа
+                    int probeLength = ((i - probed.hashAt(i)) & probed.mask) + 1;
+                    maxProbeLength = Math.max(maxProbeLength, probeLength);
+                    totalProbeLength += probeLength;
+                }
+            }
+        }
+        return new ProbeLengths(maxProbeLength, size == 0 ? 0 : (double) totalProbeLength / size);
+    }
+
+    /*
+     * Пара из ячейки таблицы, setValue меняет значение в словаре
+     */
+    private class TableEntry implements Map.Entry<K, V> {
+        private final Table table;
+        private final int index;
+        private final K key;
+
+        @SuppressWarnings("unchecked")
+        private TableEntry(Table table, int index) {
+            this.table = table;
+            this.index = index;
+            this.key = (K) table.keyAt(index);
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return valueAt(table, index);
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = getValue();
+            table.setValueAt(index, value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
     }
 
+    /*
+     * Обходит сначала ячейки старой таблицы, затем новой: позиция pos < oldLength -- это ячейка
+     * старой таблицы, иначе ячейка pos - oldLength новой. Удаление через итератор не переносит ключи
+     */
     private class ViewIterator implements Iterator<Map.Entry<K, V>> {
+        private final int oldLength = isMigrating() ? oldTable.capacity : 0;
         private int pos = 0;
+        private int lastReturned = -1;
+
+        private boolean existsAt(int pos) {
+            return pos < oldLength ? oldTable.stateAt(pos) == EXISTS : table.stateAt(pos - oldLength) == EXISTS;
+        }
 
         @Override
         public boolean hasNext() {
-            for (int i = pos; i < capacity; i++) {
-                if (table.get(i).isExists()) {
-                    return true;
-                }
+            while (pos < oldLength + table.capacity && !existsAt(pos)) {
+                pos++;
             }
-            return false;
+            return pos < oldLength + table.capacity;
         }
 
         @Override
         public Map.Entry<K, V> next() {
-            for (; pos < capacity; pos++) {
-                if (table.get(pos).isExists()) {
-                    pos++;
-                    return table.get(pos - 1);
-                }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
-            throw new NoSuchElementException();
+            lastReturned = pos++;
+            if (lastReturned < oldLength) {
+                return new TableEntry(oldTable, lastReturned);
+            }
+            return new TableEntry(table, lastReturned - oldLength);
         }
 
         @Override
         public void remove() {
-            table.get(pos).setStateDeleted();
-            size--;
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            if (lastReturned < oldLength) {
+                removeAt(oldTable, lastReturned);
+            } else {
+                removeAt(table, lastReturned - oldLength);
+            }
+            lastReturned = -1;
         }
     }
 
@@ -0,0 +1,77 @@
+package ru.hse.java.util;
+
+/*
+ * Неизменяемый снимок состояния хеш-таблицы, см. DictionaryImpl.stats().
+ * Длины проб требуют обхода таблицы, поэтому они считаются отдельно, см. DictionaryImpl.probeLengths()
+ */
+public final class DictionaryStats {
+    private final int size;
+    private final int capacity;
+    private final int tombstones;
+    private final int resizeCount;
+    private final int rehashCount;
+    private final int pendingMigration;
+    private final int migrationStep;
+
+    DictionaryStats(int size, int capacity, int tombstones, int resizeCount, int rehashCount,
+                    int pendingMigration, int migrationStep) {
+        this.size = size;
+        this.capacity = capacity;
+        this.tombstones = tombstones;
+        this.resizeCount = resizeCount;
+        this.rehashCount = rehashCount;
+        this.pendingMigration = pendingMigration;
+        this.migrationStep = migrationStep;
+    }
+
+    // кол-во ключей в таблице
+    public int size() {
+        return size;
+    }
+
+    // кол-во ячеек таблицы
+    public int capacity() {
+        return capacity;
+    }
+
+    // кол-во удалённых ячеек, которые ещё не освобождены перестроением
+    public int tombstones() {
+        return tombstones;
+    }
+
+    // доля удалённых ячеек среди всех ячеек таблицы
+    public double tombstoneRatio() {
+        return capacity == 0 ? 0 : (double) tombstones / capacity;
+    }
+
+    // сколько раз менялась ёмкость таблицы
+    public int resizeCount() {
+        return resizeCount;
+    }
+
+    // сколько раз таблица перестраивалась с той же ёмкостью, чтобы избавиться от удалённых ячеек
+    public int rehashCount() {
+        return rehashCount;
+    }
+
+    // кол-во ячеек старой таблицы, которые ещё не перенесены в новую после resize
+    public int pendingMigration() {
+        return pendingMigration;
+    }
+
+    // сколько ячеек старой таблицы переносит один шаг переноса, либо 0, если перенос закончен
+    public int migrationStep() {
+        return migrationStep;
+    }
+
+    @Override
+    public String toString() {
+        return "DictionaryStats{size=" + size
+                + ", capacity=" + capacity
+                + ", tombstones=" + tombstones
+                + ", resizeCount=" + resizeCount
+                + ", rehashCount=" + rehashCount
+                + ", pendingMigration=" + pendingMigration
+                + ", migrationStep=" + migrationStep + '}';
+    }
+}
@@ -0,0 +1,30 @@
+package ru.hse.java.util;
+
+/*
+ * Длины проб хеш-таблицы, см. DictionaryImpl.probeLengths().
+ * Длина пробы ключа -- кол-во ячеек, которые просматривает поиск этого ключа
+ */
+public final class ProbeLengths {
+    private final int max;
+    private final double average;
+
+    ProbeLengths(int max, double average) {
+        this.max = max;
+        this.average = average;
+    }
+
+    // наибольшая длина пробы среди ключей, либо 0 для пустой таблицы
+    public int max() {
+        return max;
+    }
+
+    // средняя по ключам длина пробы, либо 0 для пустой таблицы
+    public double average() {
+        return average;
+    }
+
+    @Override
+    public String toString() {
+        return "ProbeLengths{max=" + max + ", average=" + average + '}';
+    }
+}
@@ -0,0 +1,401 @@
+package ru.hse.java.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.Function;
+
+/*
+ * Хеш-таблица с открытой адресацией по схеме Robin Hood:
+ * при вставке ключ, ушедший от своей ячейки дальше, забирает место у ключа, ушедшего ближе,
+ * поэтому длины проб выравниваются, и поиск останавливается, как только встречает ключ,
+ * который ближе к своей ячейке, чем искомый был бы здесь.
+ * Удаление сдвигает следующие ключи цепочки назад, так что удалённых ячеек не бывает
+ * и промахи не замедляются после многих удалений
+ */
+public class RobinHoodDictionary<K, V> implements Dictionary<K, V> {
+    private static final int DEFAULT_CAPACITY = 32;
+    private static final double DEFAULT_UP_FACTOR = 0.666;
+    private static final double DEFAULT_DOWN_FACTOR = 0.166;
+
+    /*
+     * В distances пустая ячейка -- это EMPTY, а занятая хранит длину пробы ключа плюс один
+     */
+    private static final int EMPTY = 0;
+
+    private final double upFactor;
+    private final double downFactor;
+    private int size = 0;
+
+    /*
+     * Ёмкость всегда степень двойки, поэтому номер ячейки -- это hash & mask, без деления
+     */
+    private int capacity;
+    private int mask;
+
+    /*
+     * Таблица хранится в параллельных массивах: i-я ячейка -- это keys[i], values[i], hashes[i] и distances[i]
+     */
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
+    private int[] distances;
+
+    public RobinHoodDictionary() {
+        this(DEFAULT_CAPACITY, DEFAULT_UP_FACTOR, DEFAULT_DOWN_FACTOR);
+    }
+
+    public RobinHoodDictionary(int capacity, double upFactor, double downFactor) {
+        this.upFactor = upFactor;
+        this.downFactor = downFactor;
+        allocate(tableSizeFor(capacity));
+    }
+
+    /*
+     * Наименьшая степень двойки, не меньшая capacity
+     */
+    private static int tableSizeFor(int capacity) {
+        return Math.max(1, Integer.highestOneBit(Math.max(capacity - 1, 0)) << 1);
+    }
+
+    /*
+     * Старшие биты hashCode примешиваются к младшим, так как номер ячейки берётся по маске
+     */
+    private static int getHash(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        mask = capacity - 1;
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        distances = new int[capacity];
+    }
+
+    private void resize(int capacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        int[] oldDistances = distances;
+
+        allocate(capacity);
+        for (int i = 0; i < oldDistances.length; i++) {
+            if (oldDistances[i] != EMPTY) {
+                insert(oldKeys[i], oldValues[i], oldHashes[i]);
+            }
+        }
+    }
+
+    /*
+     * Вставляет ключ, которого нет в таблице, в которой есть пустая ячейка
+     */
+    private void insert(Object key, Object value, int hash) {
+        int index = hash & mask;
+        int distance = EMPTY + 1;
+        while (distances[index] != EMPTY) {
+            if (distances[index] < distance) {
+                // ключ в ячейке ближе к своему месту, он уступает ячейку и ищет место дальше
+                Object displacedKey = keys[index];
+                Object displacedValue = values[index];
+                int displacedHash = hashes[index];
+                int displacedDistance = distances[index];
+                keys[index] = key;
+                values[index] = value;
+                hashes[index] = hash;
+                distances[index] = distance;
+                key = displacedKey;
+                value = displacedValue;
+                hash = displacedHash;
+                distance = displacedDistance;
+            }
+            index = (index + 1) & mask;
+            distance++;
+        }
+        keys[index] = key;
+        values[index] = value;
+        hashes[index] = hash;
+        distances[index] = distance;
+    }
+
+    /*
+     * Индекс ячейки с ключом key, либо -1, если такого ключа нет
+     */
+    private int find(Object key) {
+        int hash = getHash(key);
+        int index = hash & mask;
+        for (int distance = EMPTY + 1; distances[index] >= distance; distance++) {
+            if (hashes[index] == hash && Objects.equals(keys[index], key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int index) {
+        return (K) keys[index];
+    }
+
+    /*
+     * Удаляет ключ из ячейки index и сдвигает на шаг назад следующие ключи,
+     * пока не встретится пустая ячейка или ключ на своём месте
+     */
+    private V removeAt(int index) {
+        V oldValue = valueAt(index);
+        int next = (index + 1) & mask;
+        while (distances[next] > EMPTY + 1) {
+            keys[index] = keys[next];
+            values[index] = values[next];
+            hashes[index] = hashes[next];
+            distances[index] = distances[next] - 1;
+            index = next;
+            next = (next + 1) & mask;
+        }
+        keys[index] = null;
+        values[index] = null;
+        distances[index] = EMPTY;
+        size--;
+        return oldValue;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object o) {
+        for (int i = 0; i < capacity; i++) {
+            if (distances[i] != EMPTY && Objects.equals(values[i], o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        int index = find(key);
+        return index < 0 ? null : valueAt(index);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        int index = find(key);
+        if (index >= 0) {
+            V oldValue = valueAt(index);
+            values[index] = value;
+            return oldValue;
+        }
+
+        // в таблице всегда остаётся пустая ячейка, на ней заканчиваются вставка и итерация
+        if (size > upFactor * capacity || size + 1 >= capacity) {
+            resize(capacity * 2);
+        }
+        insert(key, value, getHash(key));
+        size++;
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (size < downFactor * capacity && capacity > DEFAULT_CAPACITY && size + 1 < capacity / 2) {
+            resize(capacity / 2);
+        }
+        int index = find(key);
+        return index < 0 ? null : removeAt(index);
+    }
+
+    @Override
+    public void putAll(@NotNull Map<? extends K, ? extends V> map) {
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /*
+     * Пара из таблицы. Удаление сдвигает ключи, поэтому getValue и setValue ищут ячейку ключа заново.
+     * Для удалённого ключа getValue возвращает null, как и в DictionaryImpl
+     */
+    private class TableEntry implements Map.Entry<K, V> {
+        private final K key;
+
+        private TableEntry(int index) {
+            this.key = keyAt(index);
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            int index = find(key);
+            return index < 0 ? null : valueAt(index);
+        }
+
+        @Override
+        public V setValue(V value) {
+            int index = find(key);
+            if (index < 0) {
+                throw new IllegalStateException("The key was removed from the dictionary");
+            }
+            V oldValue = valueAt(index);
+            values[index] = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    /*
+     * Обходит ячейки назад, начиная с пустой. Удаление сдвигает назад только ключи
+     * до следующей пустой ячейки, то есть уже пройденные, поэтому при удалении
+     * через итератор ни один ключ не пропускается и не встречается дважды
+     */
+    private class ViewIterator implements Iterator<Map.Entry<K, V>> {
+        private final int start;
+        private int step = 0;
+        private int lastReturned = -1;
+
+        private ViewIterator() {
+            int index = 0;
+            while (distances[index] != EMPTY) {
+                index++;
+            }
+            start = index;
+        }
+
+        private int slot(int step) {
+            return (start - step) & mask;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (step + 1 < capacity && distances[slot(step + 1)] == EMPTY) {
+                step++;
+            }
+            return step + 1 < capacity;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = slot(++step);
+            return new TableEntry(lastReturned);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            removeAt(lastReturned);
+            lastReturned = -1;
+        }
+    }
+
+    private class KeySet extends AbstractImmutableCollection<K> implements Set<K> {
+
+        @NotNull
+        @Override
+        public Iterator<K> iterator() {
+            return IteratorFactory.create(new ViewIterator(), Entry::getKey);
+        }
+
+        @Override
+        public int size() {
+            return RobinHoodDictionary.this.size();
+        }
+    }
+
+    @Override
+    public @NotNull Set<K> keySet() {
+        return new KeySet();
+    }
+
+    private class Values extends AbstractImmutableCollection<V> {
+
+        @NotNull
+        @Override
+        public Iterator<V> iterator() {
+            return IteratorFactory.create(new ViewIterator(), Entry::getValue);
+        }
+
+        @Override
+        public int size() {
+            return RobinHoodDictionary.this.size();
+        }
+    }
+
+    @Override
+    public @NotNull Collection<V> values() {
+        return new Values();
+    }
+
+    private class EntrySet extends AbstractImmutableCollection<Entry<K, V>> implements Set<Entry<K, V>> {
+
+        @NotNull
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return IteratorFactory.create(new ViewIterator(), Function.identity());
+        }
+
+        @Override
+        public int size() {
+            return RobinHoodDictionary.this.size();
+        }
+    }
+
+    @Override
+    public @NotNull Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+}
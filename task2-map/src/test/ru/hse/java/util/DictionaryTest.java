@@ -365,6 +365,368 @@ public class DictionaryTest {
         assertThrows(UnsupportedOperationException.class, () -> values.add('g'));
     }
 
+    /**
+     * Key with the given hash code, so keys collide independently of the table capacity
+     */
+    private static class CollidingKey {
+        private final int id;
+        private final int hash;
+
+        private CollidingKey(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Test
+    public void testPutAfterRemoveInChain() {
+        DictionaryImpl<CollidingKey, Character> colliding = new DictionaryImpl<>();
+        assertNull(colliding.put(new CollidingKey(1, 7), 'a'));
+        assertNull(colliding.put(new CollidingKey(2, 7), 'b'));
+        assertNull(colliding.put(new CollidingKey(3, 7), 'c'));
+        assertEquals(colliding.remove(new CollidingKey(1, 7)), 'a');
+        assertEquals(colliding.put(new CollidingKey(3, 7), 'd'), 'c');
+        assertEquals(colliding.size(), 2);
+        assertEquals(colliding.remove(new CollidingKey(3, 7)), 'd');
+        assertNull(colliding.get(new CollidingKey(3, 7)));
+        assertEquals(colliding.get(new CollidingKey(2, 7)), 'b');
+    }
+
+    @Test
+    public void testHashesWithEqualLowBits() {
+        DictionaryImpl<CollidingKey, Character> colliding = new DictionaryImpl<>(4, 0.666, 0.166);
+        for (int i = 0; i < 100; i++) {
+            assertNull(colliding.put(new CollidingKey(i, i << 16), (char) ('a' + i % 26)));
+        }
+        assertEquals(colliding.size(), 100);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(colliding.get(new CollidingKey(i, i << 16)), (char) ('a' + i % 26));
+        }
+    }
+
+    @Test
+    public void testRemoveThroughIteratorRemovesReturned() {
+        assertNull(dictionary.put(3, 'c'));
+        assertNull(dictionary.put(2, 'b'));
+        assertNull(dictionary.put(1, 'a'));
+        Iterator<Integer> i = dictionary.keySet().iterator();
+        assertThrows(IllegalStateException.class, i::remove);
+        Integer removed = i.next();
+        i.remove();
+        assertThrows(IllegalStateException.class, i::remove);
+        assertFalse(dictionary.containsKey(removed));
+        assertEquals(dictionary.size(), 2);
+        i.next();
+        i.next();
+        assertFalse(i.hasNext());
+    }
+
+    @Test
+    public void testEntrySetValue() {
+        assertNull(dictionary.put(3, 'c'));
+        Map.Entry<Integer, Character> entry = dictionary.entrySet().iterator().next();
+        assertEquals(entry.setValue('d'), 'c');
+        assertEquals(dictionary.get(3), 'd');
+        assertEquals(entry, new Cell<>(3, 'd'));
+        assertEquals(entry.hashCode(), new Cell<>(3, 'd').hashCode());
+    }
+
+    @Test
+    public void testFullTable() {
+        dictionary = new DictionaryImpl<>(4, 1.0, 0.0);
+        for (int i = 0; i < 10; i++) {
+            assertNull(dictionary.put(i, 'a'));
+        }
+        assertEquals(dictionary.size(), 10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(dictionary.get(i), 'a');
+        }
+    }
+
+    @Test
+    public void testStatsCountTombstones() {
+        dictionary = new DictionaryImpl<>(32, 0.5, 0.0);
+        for (int i = 0; i < 16; i++) {
+            assertNull(dictionary.put(i, 'a'));
+        }
+        for (int i = 0; i < 12; i++) {
+            assertEquals(dictionary.remove(i), 'a');
+        }
+        DictionaryStats stats = dictionary.stats();
+        assertEquals(stats.size(), 4);
+        assertEquals(stats.capacity(), 32);
+        assertEquals(stats.tombstones(), 12);
+        assertEquals(stats.tombstoneRatio(), 12.0 / 32);
+        assertEquals(stats.resizeCount(), 0);
+        assertEquals(stats.rehashCount(), 0);
+
+        // puts the key into the cell of removed 0
+        assertNull(dictionary.put(32, 'b'));
+        assertEquals(dictionary.stats().tombstones(), 11);
+    }
+
+    @Test
+    public void testTombstonesTriggerRehash() {
+        dictionary = new DictionaryImpl<>(32, 0.5, 0.0);
+        for (int i = 0; i < 16; i++) {
+            assertNull(dictionary.put(i, 'a'));
+        }
+        for (int i = 0; i < 12; i++) {
+            assertEquals(dictionary.remove(i), 'a');
+        }
+        assertNull(dictionary.put(16, 'b'));
+        assertNull(dictionary.put(17, 'b'));
+        DictionaryStats stats = dictionary.stats();
+        assertEquals(stats.size(), 6);
+        assertEquals(stats.capacity(), 32);
+        assertEquals(stats.tombstones(), 0);
+        assertEquals(stats.rehashCount(), 1);
+        assertEquals(stats.resizeCount(), 0);
+        for (int i = 12; i < 18; i++) {
+            assertTrue(dictionary.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testStatsProbeLengths() {
+        DictionaryImpl<CollidingKey, Character> colliding = new DictionaryImpl<>();
+        assertEquals(colliding.probeLengths().max(), 0);
+        assertEquals(colliding.probeLengths().average(), 0.0);
+        for (int i = 0; i < 3; i++) {
+            assertNull(colliding.put(new CollidingKey(i, 7), 'a'));
+        }
+        ProbeLengths probeLengths = colliding.probeLengths();
+        assertEquals(probeLengths.max(), 3);
+        assertEquals(probeLengths.average(), 2.0);
+        assertEquals(colliding.stats().tombstones(), 0);
+    }
+
+    @Test
+    public void testStatsCountResizes() {
+        for (int i = 0; i < 100; i++) {
+            assertNull(dictionary.put(i, 'a'));
+        }
+        DictionaryStats stats = dictionary.stats();
+        assertEquals(stats.capacity(), 256);
+        assertEquals(stats.resizeCount(), 3);
+        assertEquals(dictionary.probeLengths().max(), 1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(dictionary.remove(i), 'a');
+        }
+        assertEquals(dictionary.stats().capacity(), 32);
+        assertEquals(dictionary.stats().resizeCount(), 6);
+    }
+
+    @Test
+    public void testOperationsDuringIncrementalResize() {
+        // the 23rd put resizes the default table, its keys are moved to the new one by later operations, gets too
+        for (int i = 0; i < 23; i++) {
+            assertNull(dictionary.put(i, 'a'));
+            hashMap.put(i, 'a');
+        }
+        assertEquals(dictionary.stats().capacity(), 64);
+        assertEquals(dictionary.stats().resizeCount(), 1);
+        for (int i = 0; i < 23; i++) {
+            assertEquals(dictionary.get(i), 'a');
+        }
+        assertEquals(dictionary.put(5, 'b'), 'a');
+        hashMap.put(5, 'b');
+        assertTrue(dictionary.containsValue('b'));
+        assertEquals(dictionary.remove(7), 'a');
+        hashMap.remove(7);
+        assertNull(dictionary.get(7));
+
+        Iterator<Integer> i = dictionary.keySet().iterator();
+        while (i.hasNext()) {
+            Integer key = i.next();
+            if (key % 4 == 0) {
+                i.remove();
+                hashMap.remove(key);
+            }
+        }
+        assertEquals(dictionary.size(), hashMap.size());
+        assertEquals(new HashSet<>(dictionary.entrySet()), hashMap.entrySet());
+
+        for (int j = 100; j < 120; j++) {
+            assertNull(dictionary.put(j, 'c'));
+            hashMap.put(j, 'c');
+        }
+        assertEquals(new HashSet<>(dictionary.entrySet()), hashMap.entrySet());
+        for (Integer key : hashMap.keySet()) {
+            assertEquals(dictionary.get(key), hashMap.get(key));
+        }
+    }
+
+    @Test
+    public void testOnlyUpdatesMigrate() {
+        for (int i = 0; i < 23; i++) {
+            assertNull(dictionary.put(i, 'a'));
+        }
+        assertEquals(dictionary.stats().pendingMigration(), 32);
+        for (int i = -10; i < 23; i++) {
+            assertEquals(dictionary.containsKey(i), i >= 0);
+            assertEquals(dictionary.get(i), i >= 0 ? Character.valueOf('a') : null);
+        }
+        assertTrue(dictionary.containsValue('a'));
+        assertEquals(dictionary.stats().pendingMigration(), 32);
+
+        // the migration is over before puts reach the next resize
+        for (int i = 0; dictionary.stats().pendingMigration() > 0; i++) {
+            assertEquals(dictionary.stats().resizeCount(), 1);
+            assertEquals(dictionary.put(i, 'b'), 'a');
+        }
+    }
+
+    @Test
+    public void testIteratorDuringMigration() {
+        for (int i = 0; i < 23; i++) {
+            assertNull(dictionary.put(i, 'a'));
+        }
+        assertNull(dictionary.put(23, 'a'));
+        assertTrue(dictionary.stats().pendingMigration() > 0);
+        Set<Integer> keys = new HashSet<>();
+        for (Integer key : dictionary.keySet()) {
+            assertEquals(dictionary.get(key), 'a');
+            assertTrue(keys.add(key));
+        }
+        assertEquals(keys.size(), 24);
+        assertTrue(dictionary.stats().pendingMigration() > 0);
+    }
+
+    @Test
+    public void testConcurrentReadsDuringMigration() throws InterruptedException {
+        for (int i = 0; i < 3 * STRESS_TEST_SIZE; i++) {
+            assertNull(dictionary.put(i, 'a'));
+        }
+        while (dictionary.stats().pendingMigration() == 0) {
+            int key = dictionary.size();
+            assertNull(dictionary.put(key, 'a'));
+        }
+        int size = dictionary.size();
+        int pendingMigration = dictionary.stats().pendingMigration();
+
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = -size; i < size; i++) {
+                        assertEquals(dictionary.get(i), i >= 0 ? Character.valueOf('a') : null);
+                    }
+                    assertEquals(new HashSet<>(dictionary.keySet()).size(), size);
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.isEmpty(), errors.toString());
+        assertEquals(dictionary.stats().pendingMigration(), pendingMigration);
+    }
+
+    private void assertMigrationFinishesBeforeResize(DictionaryImpl<Integer, Character> dictionary, boolean isPut,
+                                                     int key) {
+        DictionaryStats before = dictionary.stats();
+        if (isPut) {
+            dictionary.put(key, 'a');
+        } else {
+            dictionary.remove(key);
+        }
+        DictionaryStats after = dictionary.stats();
+        // the operation moves one more step before it starts the next resize
+        if (after.resizeCount() + after.rehashCount() > before.resizeCount() + before.rehashCount()) {
+            assertTrue(before.pendingMigration() <= before.migrationStep());
+        }
+    }
+
+    @Test
+    public void testStressMigrationFinishesBeforeNextResize() {
+        double[][] factors = {{0.666, 0.166}, {0.9, 0.4}, {0.5, 0.05}};
+        for (double[] factor : factors) {
+            DictionaryImpl<Integer, Character> dictionary = new DictionaryImpl<>(32, factor[0], factor[1]);
+            for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+                assertMigrationFinishesBeforeResize(dictionary, true, i);
+            }
+            for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+                assertMigrationFinishesBeforeResize(dictionary, false, i);
+            }
+            assertTrue(dictionary.stats().resizeCount() > 0);
+
+            Random random = new Random();
+            for (int i = 0; i < STRESS_TEST_SIZE; i++) {
+                assertMigrationFinishesBeforeResize(dictionary, random.nextBoolean(), random.nextInt(1000));
+            }
+        }
+    }
+
+    @Test
+    public void testStressIncrementalResize() {
+        for (int i = 0; i < STRESS_TEST_SIZE * 10; i++) {
+            assertNull(dictionary.put(i, 'a'));
+            assertEquals(dictionary.size(), i + 1);
+        }
+        for (int i = 0; i < STRESS_TEST_SIZE * 10; i++) {
+            assertEquals(dictionary.get(i), 'a');
+        }
+        for (int i = 0; i < STRESS_TEST_SIZE * 10; i++) {
+            assertEquals(dictionary.remove(i), 'a');
+            assertNull(dictionary.get(i));
+        }
+        assertTrue(dictionary.isEmpty());
+        assertFalse(dictionary.keySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testStressTombstonesStayBounded() {
+        Random random = new Random();
+        for (int i = 0; i < STRESS_TEST_SIZE * 10; i++) {
+            int key = random.nextInt(STRESS_TEST_SIZE);
+            if (random.nextBoolean()) {
+                assertEquals(dictionary.put(key, 'a'), hashMap.put(key, 'a'));
+            } else {
+                assertEquals(dictionary.remove(key), hashMap.remove(key));
+            }
+            DictionaryStats stats = dictionary.stats();
+            assertTrue(stats.size() + stats.tombstones() <= 0.666 * stats.capacity() + 1);
+        }
+        assertEquals(new HashSet<>(dictionary.keySet()), hashMap.keySet());
+    }
+
+    @Test
+    public void testStressPutRemoveAndGet() {
+        Random random = new Random();
+        for (int i = 0; i < STRESS_TEST_SIZE * 10; i++) {
+            int key = random.nextInt(STRESS_TEST_SIZE / 10);
+            char value = (char) (random.nextInt(26) + 'a');
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(dictionary.put(key, value), hashMap.put(key, value));
+                    break;
+                case 1:
+                    assertEquals(dictionary.remove(key), hashMap.remove(key));
+                    break;
+                default:
+                    assertEquals(dictionary.get(key), hashMap.get(key));
+            }
+            assertEquals(dictionary.size(), hashMap.size());
+        }
+        assertEquals(new HashSet<>(dictionary.keySet()), hashMap.keySet());
+    }
+
     @Test
     public void testStressPut() {
         generateStressData(STRESS_TEST_SIZE);
@@ -0,0 +1,182 @@
+package ru.hse.java.util;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+public class RobinHoodDictionaryTest {
+    private static final int STRESS_TEST_SIZE = 10_000;
+
+    private RobinHoodDictionary<Integer, Character> dictionary;
+    private HashMap<Integer, Character> hashMap;
+
+    @BeforeEach
+    public void beforeEachTest() {
+        dictionary = new RobinHoodDictionary<>();
+        hashMap = new HashMap<>();
+    }
+
+    @Test
+    public void testPutGetAndRemove() {
+        assertTrue(dictionary.isEmpty());
+        assertNull(dictionary.put(3, 'a'));
+        assertNull(dictionary.put(2, 'b'));
+        assertEquals(dictionary.put(3, 'c'), 'a');
+        assertEquals(dictionary.size(), 2);
+        assertEquals(dictionary.get(3), 'c');
+        assertNull(dictionary.get(4));
+        assertTrue(dictionary.containsValue('b'));
+        assertEquals(dictionary.remove(3), 'c');
+        assertNull(dictionary.remove(3));
+        assertFalse(dictionary.containsKey(3));
+        assertEquals(dictionary.size(), 1);
+    }
+
+    @Test
+    public void testNullKeyAndValue() {
+        assertNull(dictionary.put(null, 'a'));
+        assertEquals(dictionary.put(null, null), 'a');
+        assertTrue(dictionary.containsKey(null));
+        assertTrue(dictionary.containsValue(null));
+        assertNull(dictionary.remove(null));
+        assertFalse(dictionary.containsKey(null));
+        assertTrue(dictionary.isEmpty());
+    }
+
+    @Test
+    public void testRemoveShiftsChainBack() {
+        // 0, 32 and 64 start at the same cell of the default table, 1 starts at the next one
+        assertNull(dictionary.put(0, 'a'));
+        assertNull(dictionary.put(32, 'b'));
+        assertNull(dictionary.put(1, 'c'));
+        assertNull(dictionary.put(64, 'd'));
+        assertEquals(dictionary.remove(0), 'a');
+        assertEquals(dictionary.get(32), 'b');
+        assertEquals(dictionary.get(1), 'c');
+        assertEquals(dictionary.get(64), 'd');
+        assertEquals(dictionary.remove(32), 'b');
+        assertEquals(dictionary.get(1), 'c');
+        assertEquals(dictionary.get(64), 'd');
+        assertEquals(dictionary.size(), 2);
+    }
+
+    @Test
+    public void testFullTable() {
+        dictionary = new RobinHoodDictionary<>(1, 1.0, 0.0);
+        for (int i = 0; i < 100; i++) {
+            assertNull(dictionary.put(i, 'a'));
+        }
+        assertEquals(dictionary.size(), 100);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(dictionary.get(i), 'a');
+        }
+        assertNull(dictionary.get(100));
+    }
+
+    @Test
+    public void testIterateOverViews() {
+        for (int i = 0; i < 100; i++) {
+            hashMap.put(i * 32, (char) ('a' + i % 26));
+        }
+        dictionary.putAll(hashMap);
+        assertEquals(new HashSet<>(dictionary.keySet()), hashMap.keySet());
+        assertEquals(new HashSet<>(dictionary.entrySet()), hashMap.entrySet());
+        List<Character> values = new ArrayList<>(dictionary.values());
+        List<Character> expectedValues = new ArrayList<>(hashMap.values());
+        Collections.sort(values);
+        Collections.sort(expectedValues);
+        assertEquals(values, expectedValues);
+        assertThrows(UnsupportedOperationException.class, () -> dictionary.keySet().remove(0));
+    }
+
+    @Test
+    public void testEntrySetValue() {
+        assertNull(dictionary.put(3, 'c'));
+        Map.Entry<Integer, Character> entry = dictionary.entrySet().iterator().next();
+        assertEquals(entry.setValue('d'), 'c');
+        assertEquals(dictionary.get(3), 'd');
+        assertEquals(entry, new Cell<>(3, 'd'));
+        assertEquals(dictionary.remove(3), 'd');
+        assertThrows(IllegalStateException.class, () -> entry.setValue('e'));
+    }
+
+    @Test
+    public void testEntryReadsCurrentValue() {
+        assertNull(dictionary.put(3, 'c'));
+        Map.Entry<Integer, Character> entry = dictionary.entrySet().iterator().next();
+        assertEquals(dictionary.put(3, 'd'), 'c');
+        assertEquals(entry.getValue(), 'd');
+        assertEquals(entry, new Cell<>(3, 'd'));
+        // 3, 35 и 67 начинают с одной ячейки, после удаления 3 возвращается в конец цепочки
+        assertNull(dictionary.put(35, 'e'));
+        assertNull(dictionary.put(67, 'f'));
+        assertEquals(dictionary.remove(3), 'd');
+        assertNull(entry.getValue());
+        assertNull(dictionary.put(3, 'g'));
+        assertEquals(entry.getValue(), 'g');
+    }
+
+    @Test
+    public void testRemoveThroughIteratorVisitsEveryKeyOnce() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            // keys end with the same low bits, so they make a long chain which wraps around the end of the table
+            int key = (random.nextInt(50) + 1) * 1024 - 1 - random.nextInt(4);
+            dictionary.put(key, 'a');
+            hashMap.put(key, 'a');
+        }
+        Set<Integer> keys = new HashSet<>(hashMap.keySet());
+        Set<Integer> visited = new HashSet<>();
+        Iterator<Integer> i = dictionary.keySet().iterator();
+        assertThrows(IllegalStateException.class, i::remove);
+        while (i.hasNext()) {
+            Integer key = i.next();
+            assertTrue(visited.add(key));
+            if (key % 3 != 0) {
+                i.remove();
+                hashMap.remove(key);
+            }
+        }
+        assertThrows(NoSuchElementException.class, i::next);
+        assertEquals(visited, keys);
+        assertEquals(new HashSet<>(dictionary.keySet()), hashMap.keySet());
+        assertEquals(dictionary.size(), hashMap.size());
+        for (Integer key : keys) {
+            assertEquals(dictionary.get(key), hashMap.get(key));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        for (int i = 0; i < 100; i++) {
+            dictionary.put(i, 'a');
+        }
+        dictionary.clear();
+        assertTrue(dictionary.isEmpty());
+        assertNull(dictionary.get(1));
+        assertFalse(dictionary.keySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testStressPutRemoveAndGet() {
+        Random random = new Random();
+        for (int i = 0; i < STRESS_TEST_SIZE * 10; i++) {
+            int key = random.nextInt(STRESS_TEST_SIZE / 10);
+            char value = (char) (random.nextInt(26) + 'a');
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(dictionary.put(key, value), hashMap.put(key, value));
+                    break;
+                case 1:
+                    assertEquals(dictionary.remove(key), hashMap.remove(key));
+                    break;
+                default:
+                    assertEquals(dictionary.get(key), hashMap.get(key));
+            }
+            assertEquals(dictionary.size(), hashMap.size());
+        }
+        assertEquals(new HashSet<>(dictionary.keySet()), hashMap.keySet());
+    }
+}